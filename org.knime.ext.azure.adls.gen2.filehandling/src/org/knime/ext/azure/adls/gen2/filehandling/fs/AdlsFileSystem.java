@@ -53,6 +53,7 @@
 import java.nio.file.Path;
 import java.util.Collections;
 
+import org.knime.ext.azure.AzureRequestGovernor;
 import org.knime.ext.azure.AzureUtils;
 import org.knime.filehandling.core.connections.base.BaseFileSystem;
 
@@ -108,7 +109,8 @@ private static DataLakeServiceClient createClient(final AdlsFSConnectionConfig c
 
         final var clientBuilder = new DataLakeServiceClientBuilder()
                 .endpoint(config.getEndpoint())//
-                .clientOptions(httpClientOptions);
+                .clientOptions(httpClientOptions)//
+                .addPolicy(AzureRequestGovernor.getPolicy());
 
         if (config.getAzureTokenCredential() != null) {
             clientBuilder.credential(config.getAzureTokenCredential());
@@ -0,0 +1,153 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+
+/**
+ * Tests how {@link AzureBlobStorageAsyncBulkOperations} reads the attributes
+ * of a path that is not a blob, against a fake storage account that has no
+ * blob 'container/dir', but a directory marker below it.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageAsyncBulkOperationsTest {
+
+    private static final String DIR = "/container/dir";
+
+    private static final String MARKER_NAME = ".directory-marker";
+
+    private static final String MARKER = DIR + "/" + MARKER_NAME;
+
+    private static final String DIR_LISTING = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\""
+            + " ContainerName=\"container\"><Prefix>dir/</Prefix><MaxResults>1</MaxResults>"
+            + "<Delimiter>/</Delimiter><Blobs><Blob><Name>dir/" + MARKER_NAME
+            + "</Name><Properties><Content-Length>0</Content-Length><BlobType>BlockBlob</BlobType>"
+            + "</Properties></Blob></Blobs><NextMarker /></EnumerationResults>";
+
+    /**
+     * Answers the requests of the fake account, except for listings of the
+     * directory, which are answered by the given function.
+     */
+    private static Function<HttpRequest, HttpResponse> account(
+            final Function<HttpRequest, HttpResponse> directoryListing) {
+        return request -> {
+            final String path = request.getUrl().getPath();
+            final String query = request.getUrl().getQuery();
+            if (request.getHttpMethod() == HttpMethod.GET && query != null && query.contains("comp=list")) {
+                return directoryListing.apply(request);
+            } else if (request.getHttpMethod() == HttpMethod.HEAD && MARKER.equals(path)) {
+                return AzureBlobStorageFakeHttpClient.respond(request, 200, "", //
+                        "Content-Length", "0", //
+                        "Last-Modified", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                        "x-ms-creation-time", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                        "x-ms-blob-type", "BlockBlob", //
+                        "ETag", "\"0x1\"");
+            } else {
+                return AzureBlobStorageFakeHttpClient.respondError(request, 404, "BlobNotFound");
+            }
+        };
+    }
+
+    private static Map<AzureBlobStoragePath, BasicFileAttributes> readAttributes(
+            final AzureBlobStorageFakeHttpClient httpClient) throws Exception {
+        try (final AzureBlobStorageFileSystem fs = new AzureBlobStorageFileSystem(
+                new AzureBlobStorageFSConnectionConfig("/"), httpClient.createServiceClient(), 0)) {
+            return fs.bulkReadAttributes(List.of(fs.getPath(DIR)));
+        }
+    }
+
+    private static long countRequests(final AzureBlobStorageFakeHttpClient httpClient, final HttpMethod method,
+            final String path) {
+        return httpClient.getRequests().stream() //
+                .filter(r -> r.getHttpMethod() == method && r.getUrl().getPath().equals(path)) //
+                .count();
+    }
+
+    @Test
+    void testMissingBlobIsListedAsDirectory() throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(
+                account(request -> AzureBlobStorageFakeHttpClient.respond(request, 200, DIR_LISTING, //
+                        "Content-Type", "application/xml")));
+
+        final Map<AzureBlobStoragePath, BasicFileAttributes> attributes = readAttributes(httpClient);
+
+        assertEquals(1, attributes.size());
+        assertTrue(attributes.values().iterator().next().isDirectory());
+        // the blob, followed by a single listing, without the sequential probes
+        assertEquals(1, countRequests(httpClient, HttpMethod.HEAD, DIR));
+        assertEquals(0, countRequests(httpClient, HttpMethod.HEAD, MARKER));
+    }
+
+    @Test
+    void testForbiddenListingFallsBackToSequentialProbes() throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(
+                account(request -> AzureBlobStorageFakeHttpClient.respondError(request, 403,
+                        "AuthorizationPermissionMismatch")));
+
+        final Map<AzureBlobStoragePath, BasicFileAttributes> attributes = readAttributes(httpClient);
+
+        assertEquals(1, attributes.size());
+        assertTrue(attributes.values().iterator().next().isDirectory());
+        assertEquals(1, countRequests(httpClient, HttpMethod.HEAD, MARKER));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.azure.storage.blob.models.Block;
+
+/**
+ * Tests the range planning of {@link AzureBlobStorageDeltaUpload}, i.e. which
+ * committed blocks are reused and which ranges of the local copy are staged
+ * again. The blob consists of the blocks A, B and C with 10 bytes each, and
+ * ranges are staged in blocks of at most 4 bytes.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageDeltaUploadTest {
+
+    private static final long BLOCK_SIZE = 4;
+
+    private static AzureBlobStorageDeltaUpload createUpload() {
+        final List<Block> blocks = List.of(block("A"), block("B"), block("C"));
+        return new AzureBlobStorageDeltaUpload(null, null, "etag", blocks, 8);
+    }
+
+    private static Block block(final String name) {
+        return new Block().setName(name).setSizeLong(10);
+    }
+
+    /**
+     * @return the planned segments, reused blocks by their ID and staged ranges as
+     *         start-end
+     */
+    private static List<String> plan(final AzureBlobStorageDeltaUpload upload, final long length) {
+        return upload.planSegments(length, BLOCK_SIZE).stream() //
+                .map(s -> s.isReused() ? s.getBlockId() : (s.getStart() + "-" + s.getEnd())) //
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void testUnmodified() {
+        assertEquals(List.of("A", "B", "C"), plan(createUpload(), 30));
+    }
+
+    @Test
+    void testModifiedBlock() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markDirty(12, 13);
+        assertEquals(List.of("A", "10-14", "14-18", "18-20", "C"), plan(upload, 30));
+    }
+
+    @Test
+    void testRangeEndsAtBlockBoundary() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        // the end is exclusive, hence B is not modified
+        upload.markDirty(5, 10);
+        assertEquals(List.of("0-4", "4-8", "8-10", "B", "C"), plan(upload, 30));
+    }
+
+    @Test
+    void testOverlappingWrites() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markDirty(12, 15);
+        upload.markDirty(14, 18);
+        upload.markDirty(1, 2);
+        upload.markDirty(0, 3);
+        // adjacent modified blocks are staged as one range
+        assertEquals(List.of("0-4", "4-8", "8-12", "12-16", "16-20", "C"), plan(upload, 30));
+    }
+
+    @Test
+    void testWriteSpanningBlocks() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markDirty(18, 22);
+        assertEquals(List.of("A", "10-14", "14-18", "18-22", "22-26", "26-30"), plan(upload, 30));
+    }
+
+    @Test
+    void testAppendBeyondOriginalSize() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markDirty(30, 39);
+        assertEquals(List.of("A", "B", "C", "30-34", "34-38", "38-39"), plan(upload, 39));
+    }
+
+    @Test
+    void testTruncated() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markTruncated(25);
+        assertEquals(List.of("A", "B", "20-24", "24-25"), plan(upload, 25));
+    }
+
+    @Test
+    void testTruncatedThenGrown() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        // blocks beyond the truncation cannot be reused, even if the data is written again
+        upload.markTruncated(15);
+        upload.markDirty(15, 30);
+        assertEquals(List.of("A", "10-14", "14-18", "18-22", "22-26", "26-30"), plan(upload, 30));
+    }
+
+    @Test
+    void testTruncatedThenGrownWithoutWrites() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        // growing by setting the position leaves a gap of zeros, which differs from C
+        upload.markTruncated(20);
+        assertEquals(List.of("A", "B", "20-24", "24-28", "28-30"), plan(upload, 30));
+    }
+
+    @Test
+    void testNoReusableBlocks() {
+        final AzureBlobStorageDeltaUpload upload = createUpload();
+        upload.markDirty(0, 5);
+        upload.markDirty(15, 16);
+        upload.markDirty(29, 30);
+        final List<AzureBlobStorageDeltaUpload.Segment> segments = upload.planSegments(30, BLOCK_SIZE);
+        assertTrue(segments.stream().noneMatch(AzureBlobStorageDeltaUpload.Segment::isReused));
+        assertEquals(List.of("0-4", "4-8", "8-12", "12-16", "16-20", "20-24", "24-28", "28-30"), plan(upload, 30));
+    }
+}
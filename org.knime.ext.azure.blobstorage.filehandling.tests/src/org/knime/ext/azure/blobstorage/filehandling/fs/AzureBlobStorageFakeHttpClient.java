@@ -0,0 +1,230 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.common.StorageSharedKeyCredential;
+import com.azure.storage.common.policy.RequestRetryOptions;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link HttpClient} that answers the requests of the Azure SDK with the
+ * responses of a handler, instead of sending them to a storage account. The
+ * container listing that checks the credentials of a new file system is
+ * answered with an empty listing. The requests are recorded, so that tests can
+ * check which requests were sent.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageFakeHttpClient implements HttpClient {
+
+    static final String ACCOUNT = "account";
+
+    private static final String EMPTY_CONTAINER_LISTING = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\">"
+            + "<Containers /><NextMarker /></EnumerationResults>";
+
+    private final Function<HttpRequest, HttpResponse> m_handler;
+
+    private final List<HttpRequest> m_requests = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param handler
+     *            Creates the response to a request.
+     */
+    AzureBlobStorageFakeHttpClient(final Function<HttpRequest, HttpResponse> handler) {
+        m_handler = handler;
+    }
+
+    @Override
+    public Mono<HttpResponse> send(final HttpRequest request) {
+        m_requests.add(request);
+        if (request.getHttpMethod() == HttpMethod.GET && "/".equals(request.getUrl().getPath())) {
+            return Mono.just(respond(request, 200, EMPTY_CONTAINER_LISTING, "Content-Type", "application/xml"));
+        }
+        return Mono.fromSupplier(() -> m_handler.apply(request));
+    }
+
+    /**
+     * @return the requests sent so far
+     */
+    List<HttpRequest> getRequests() {
+        return m_requests;
+    }
+
+    /**
+     * @return a client for the account {@link #ACCOUNT} that sends its requests
+     *         with this HTTP client.
+     */
+    BlobServiceClient createServiceClient() {
+        return createServiceClient(new RequestRetryOptions());
+    }
+
+    /**
+     * @param retryOptions
+     *            The retry options of the client.
+     * @return a client for the account {@link #ACCOUNT} that sends its requests
+     *         with this HTTP client.
+     */
+    BlobServiceClient createServiceClient(final RequestRetryOptions retryOptions) {
+        final String key = Base64.getEncoder().encodeToString("key".getBytes(StandardCharsets.UTF_8));
+        return new BlobServiceClientBuilder() //
+                .endpoint("https://" + ACCOUNT + ".blob.core.windows.net") //
+                .credential(new StorageSharedKeyCredential(ACCOUNT, key)) //
+                .httpClient(this) //
+                .retryOptions(retryOptions) //
+                .buildClient();
+    }
+
+    /**
+     * @param request
+     *            The request to respond to.
+     * @param statusCode
+     *            The status code of the response.
+     * @param body
+     *            The body of the response.
+     * @param headers
+     *            Names and values of the headers of the response, alternating.
+     * @return the response.
+     */
+    static HttpResponse respond(final HttpRequest request, final int statusCode, final String body,
+            final String... headers) {
+        final HttpHeaders httpHeaders = new HttpHeaders();
+        for (int i = 0; i < headers.length; i += 2) {
+            httpHeaders.set(HttpHeaderName.fromString(headers[i]), headers[i + 1]);
+        }
+        return new FakeHttpResponse(request, statusCode, httpHeaders, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param request
+     *            The request to respond to.
+     * @param statusCode
+     *            The error status code.
+     * @param errorCode
+     *            The error code of the storage service.
+     * @return the error response.
+     */
+    static HttpResponse respondError(final HttpRequest request, final int statusCode, final String errorCode) {
+        final String body = "<?xml version=\"1.0\" encoding=\"utf-8\"?><Error><Code>" + errorCode
+                + "</Code><Message>" + errorCode + "</Message></Error>";
+        return respond(request, statusCode, body, //
+                "x-ms-error-code", errorCode, //
+                "Content-Type", "application/xml");
+    }
+
+    private static final class FakeHttpResponse extends HttpResponse {
+
+        private final int m_statusCode;
+
+        private final HttpHeaders m_headers;
+
+        private final byte[] m_body;
+
+        private FakeHttpResponse(final HttpRequest request, final int statusCode, final HttpHeaders headers,
+                final byte[] body) {
+            super(request);
+            m_statusCode = statusCode;
+            m_headers = headers;
+            m_body = body;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return m_statusCode;
+        }
+
+        @Override
+        public String getHeaderValue(final String name) {
+            return m_headers.getValue(HttpHeaderName.fromString(name));
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return m_headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return Flux.defer(() -> Flux.just(ByteBuffer.wrap(m_body)));
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(m_body);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return getBodyAsString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(final Charset charset) {
+            return Mono.just(new String(m_body, charset));
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+
+/**
+ * Tests the literal prefixes that {@link AzureBlobStorageNameFilter} pushes down
+ * into listing requests. A prefix that is too long would hide matching blobs,
+ * hence the cases where only a shorter (or no) prefix is safe are covered.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageNameFilterTest {
+
+    private static final String DIR_LISTING = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\""
+            + " ContainerName=\"container\"><Delimiter>/</Delimiter><Blobs><Blob><Name>dir/2024-06-01.json"
+            + "</Name><Properties><Content-Length>1</Content-Length><BlobType>BlockBlob</BlobType>"
+            + "</Properties></Blob></Blobs><NextMarker /></EnumerationResults>";
+
+    private static String regexPrefix(final String regex) {
+        return AzureBlobStorageNameFilter.regex(regex).getLiteralPrefix("/");
+    }
+
+    private static String regexPrefix(final String regex, final int flags) {
+        return AzureBlobStorageNameFilter.regex(Pattern.compile(regex, flags)).getLiteralPrefix("/");
+    }
+
+    private static String globPrefix(final String glob) {
+        return AzureBlobStorageNameFilter.glob(glob).getLiteralPrefix("/");
+    }
+
+    @Test
+    void testRegexLiteral() {
+        assertEquals("report.csv", regexPrefix("report\\.csv"));
+        assertEquals("report-", regexPrefix("report-.*"));
+    }
+
+    @Test
+    void testRegexEscapes() {
+        assertEquals("a.b", regexPrefix("a\\.b\\d"));
+        assertEquals("a", regexPrefix("a\\d+"));
+        assertEquals("", regexPrefix("\\Qabc\\E"));
+        assertEquals("a", regexPrefix("a\\.?b"));
+    }
+
+    @Test
+    void testRegexQuantifiers() {
+        assertEquals("a", regexPrefix("a+"));
+        assertEquals("ab", regexPrefix("ab+c"));
+        assertEquals("a", regexPrefix("ab*"));
+        assertEquals("a", regexPrefix("ab?"));
+        assertEquals("a", regexPrefix("ab{2}"));
+        assertEquals("", regexPrefix("a*b"));
+    }
+
+    @Test
+    void testRegexAnchor() {
+        assertEquals("foo", regexPrefix("^foo.*"));
+        assertEquals("foo", regexPrefix("foo$"));
+    }
+
+    @Test
+    void testRegexGroupsAndClasses() {
+        assertEquals("", regexPrefix("(foo)bar"));
+        assertEquals("foo", regexPrefix("foo(bar)?"));
+        assertEquals("", regexPrefix("[ab]c"));
+        assertEquals("", regexPrefix("foo|bar"));
+        assertEquals("", regexPrefix("f(oo|ar)"));
+    }
+
+    @Test
+    void testRegexFlags() {
+        assertEquals("a.b*", regexPrefix("a.b*", Pattern.LITERAL));
+        assertEquals("", regexPrefix("abc", Pattern.LITERAL | Pattern.CASE_INSENSITIVE));
+        assertEquals("", regexPrefix("abc", Pattern.CASE_INSENSITIVE));
+        assertEquals("", regexPrefix("abc", Pattern.COMMENTS));
+        assertEquals("abc", regexPrefix("abc", Pattern.DOTALL));
+    }
+
+    @Test
+    void testRegexPrefixEndsBeforeSeparator() {
+        assertEquals("dir", regexPrefix("dir/file.*"));
+    }
+
+    @Test
+    void testGlobPrefix() {
+        assertEquals("2024-06-", globPrefix("2024-06-*.json"));
+        assertEquals("file?", globPrefix("file\\?*"));
+        assertEquals("data", globPrefix("data[0-9]"));
+        assertEquals("ab", globPrefix("ab{c,d}"));
+        assertEquals("", globPrefix("{a,b}c"));
+        assertEquals("a,b", globPrefix("a,b*"));
+        assertEquals("", globPrefix("**.csv"));
+    }
+
+    @Test
+    void testGlobMatches() {
+        final AzureBlobStorageNameFilter filter = AzureBlobStorageNameFilter.glob("2024-06-*.{json,csv}");
+        assertTrue(filter.accept(Path.of("dir", "2024-06-01.json")));
+        assertTrue(filter.accept(Path.of("2024-06-01.csv")));
+        assertFalse(filter.accept(Path.of("2024-07-01.json")));
+        assertFalse(filter.accept(Path.of("2024-06-01.json.bak")));
+
+        final AzureBlobStorageNameFilter negated = AzureBlobStorageNameFilter.glob("[!a]?");
+        assertTrue(negated.accept(Path.of("bc")));
+        assertFalse(negated.accept(Path.of("ab")));
+    }
+
+    @Test
+    void testInvalidGlob() {
+        assertThrows(IllegalArgumentException.class, () -> AzureBlobStorageNameFilter.glob("{a,b"));
+        assertThrows(IllegalArgumentException.class, () -> AzureBlobStorageNameFilter.glob("{a,{b}}"));
+        assertThrows(IllegalArgumentException.class, () -> AzureBlobStorageNameFilter.glob("[ab"));
+    }
+
+    @Test
+    void testGlobDirectoryStreamPushesDownPrefix() throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(request -> {
+            if (isListing(request)) {
+                return AzureBlobStorageFakeHttpClient.respond(request, 200, DIR_LISTING, //
+                        "Content-Type", "application/xml");
+            }
+            return AzureBlobStorageFakeHttpClient.respondError(request, 404, "BlobNotFound");
+        });
+
+        final List<String> names = new ArrayList<>();
+        try (final AzureBlobStorageFileSystem fs = new AzureBlobStorageFileSystem(
+                new AzureBlobStorageFSConnectionConfig("/"), httpClient.createServiceClient(), 0);
+                final DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/container/dir"),
+                        "2024-06-*.json")) {
+            stream.forEach(p -> names.add(p.getFileName().toString()));
+        }
+
+        assertEquals(List.of("2024-06-01.json"), names);
+        assertTrue(httpClient.getRequests().stream() //
+                .filter(AzureBlobStorageNameFilterTest::isListing) //
+                .map(r -> URLDecoder.decode(r.getUrl().getQuery(), StandardCharsets.UTF_8)) //
+                .anyMatch(q -> ("&" + q + "&").contains("&prefix=dir/2024-06-&")));
+    }
+
+    private static boolean isListing(final HttpRequest request) {
+        final String query = request.getUrl().getQuery();
+        return request.getHttpMethod() == HttpMethod.GET && query != null && query.contains("comp=list")
+                && !"/".equals(request.getUrl().getPath());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+
+/**
+ * Tests {@link AzureBlobStorageReadCache} against a fake storage account with
+ * a single blob 'container/file.csv', whose content is 'v' followed by its
+ * version, and whose ETag is its version.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageReadCacheTest {
+
+    private static final String BLOB = "/container/file.csv";
+
+    private final AtomicInteger m_version = new AtomicInteger(1);
+
+    private HttpResponse respond(final HttpRequest request) {
+        final String eTag = "\"" + m_version.get() + "\"";
+        final String content = "v" + m_version.get();
+        if (!BLOB.equals(request.getUrl().getPath())) {
+            return AzureBlobStorageFakeHttpClient.respondError(request, 404, "BlobNotFound");
+        } else if (eTag.equals(request.getHeaders().getValue(HttpHeaderName.IF_NONE_MATCH))) {
+            return AzureBlobStorageFakeHttpClient.respondError(request, 304, "ConditionNotMet");
+        } else {
+            return AzureBlobStorageFakeHttpClient.respond(request, 200,
+                    request.getHttpMethod() == HttpMethod.HEAD ? "" : content, //
+                    "Content-Length", Integer.toString(content.length()), //
+                    "ETag", eTag, //
+                    "Last-Modified", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                    "x-ms-blob-type", "BlockBlob");
+        }
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static long countFiles(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testUnmodifiedBlobIsReadFromCache(@TempDir final Path directory) throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(this::respond);
+        final AzureBlobStorageReadCache cache = new AzureBlobStorageReadCache(directory);
+
+        try (final AzureBlobStorageFileSystem fs = new AzureBlobStorageFileSystem(
+                new AzureBlobStorageFSConnectionConfig("/"), httpClient.createServiceClient(), 0)) {
+            final AzureBlobStoragePath path = fs.getPath(BLOB);
+
+            assertEquals("v1", read(cache.newInputStream(path, 1024)));
+            assertEquals("v1", read(cache.newInputStream(path, 1024)));
+            assertEquals(1, countFiles(directory));
+        }
+    }
+
+    @Test
+    void testModifiedBlobReplacesCachedFile(@TempDir final Path directory) throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(this::respond);
+        final AzureBlobStorageReadCache cache = new AzureBlobStorageReadCache(directory);
+
+        try (final AzureBlobStorageFileSystem fs = new AzureBlobStorageFileSystem(
+                new AzureBlobStorageFSConnectionConfig("/"), httpClient.createServiceClient(), 0)) {
+            final AzureBlobStoragePath path = fs.getPath(BLOB);
+
+            assertEquals("v1", read(cache.newInputStream(path, 1024)));
+            m_version.incrementAndGet();
+            assertEquals("v2", read(cache.newInputStream(path, 1024)));
+            // the file of the overwritten content is deleted
+            assertEquals(1, countFiles(directory));
+        }
+    }
+}
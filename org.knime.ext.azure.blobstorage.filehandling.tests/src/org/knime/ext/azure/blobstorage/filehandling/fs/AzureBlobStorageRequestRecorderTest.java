@@ -0,0 +1,95 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.knime.ext.azure.blobstorage.filehandling.fs.AzureBlobStorageRequestMetrics.Operation;
+
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.common.policy.RequestRetryOptions;
+import com.azure.storage.common.policy.RetryPolicyType;
+
+/**
+ * Tests that {@link AzureBlobStorageRequestRecorder} records a call that is
+ * retried once as one request with two attempts.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageRequestRecorderTest {
+
+    @Test
+    void retriedCallIsRecordedOnce() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(
+                request -> attempts.getAndIncrement() == 0 //
+                        ? AzureBlobStorageFakeHttpClient.respondError(request, 503, "ServerBusy") //
+                        : AzureBlobStorageFakeHttpClient.respond(request, 200, "", //
+                                "Content-Length", "5", //
+                                "Last-Modified", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                                "x-ms-blob-type", "BlockBlob", //
+                                "ETag", "\"0x1\""));
+        final BlobServiceClient client = httpClient.createServiceClient(new RequestRetryOptions(
+                RetryPolicyType.FIXED, 3, (Duration) null, Duration.ofMillis(1), Duration.ofMillis(1), null));
+
+        final AzureBlobStorageRequestRecorder recorder = new AzureBlobStorageRequestRecorder();
+        recorder.instrument(client).getBlobContainerClient("container").getBlobClient("blob").getProperties();
+
+        final AzureBlobStorageRequestMetrics metrics = recorder.snapshot();
+        assertEquals(2, attempts.get());
+        assertEquals(1, metrics.getRequestCount(Operation.HEAD));
+        assertEquals(1, metrics.getRetryCount(Operation.HEAD));
+        assertEquals(1, metrics.getThrottledCount(Operation.HEAD));
+        assertEquals(1, metrics.getTotalRequestCount());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+
+/**
+ * Tests that a blob written with only an {@link AzureBlobStorageTagsOption} is
+ * created with the default options of {@link Files#newOutputStream}, against a
+ * fake storage account with an empty container 'container'.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageTagsOptionTest {
+
+    private static final HttpHeaderName TAGS = HttpHeaderName.fromString("x-ms-tags");
+
+    private static final String EMPTY_LISTING = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<EnumerationResults ServiceEndpoint=\"https://account.blob.core.windows.net/\""
+            + " ContainerName=\"container\"><Blobs /><NextMarker /></EnumerationResults>";
+
+    private static HttpResponse account(final HttpRequest request) {
+        final String path = request.getUrl().getPath();
+        final String query = request.getUrl().getQuery();
+        if (request.getHttpMethod() == HttpMethod.GET && query != null && query.contains("comp=list")) {
+            return AzureBlobStorageFakeHttpClient.respond(request, 200, EMPTY_LISTING, //
+                    "Content-Type", "application/xml");
+        } else if ("/container".equals(path)) {
+            return AzureBlobStorageFakeHttpClient.respond(request, 200, "", //
+                    "Last-Modified", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                    "ETag", "\"0x1\"");
+        } else if (request.getHttpMethod() == HttpMethod.PUT) {
+            return AzureBlobStorageFakeHttpClient.respond(request, 201, "", //
+                    "Last-Modified", "Fri, 16 Oct 2026 10:00:00 GMT", //
+                    "ETag", "\"0x2\"");
+        } else {
+            return AzureBlobStorageFakeHttpClient.respondError(request, 404, "BlobNotFound");
+        }
+    }
+
+    @Test
+    void testTagsOnlyCreatesBlob() throws Exception {
+        final AzureBlobStorageFakeHttpClient httpClient = new AzureBlobStorageFakeHttpClient(
+                AzureBlobStorageTagsOptionTest::account);
+
+        try (final AzureBlobStorageFileSystem fs = new AzureBlobStorageFileSystem(
+                new AzureBlobStorageFSConnectionConfig("/"), httpClient.createServiceClient(), 0);
+                final OutputStream out = Files.newOutputStream(fs.getPath("/container/file.txt"),
+                        AzureBlobStorageTagsOption.of(Map.of("project", "knime")))) {
+            out.write("content".getBytes(StandardCharsets.UTF_8));
+        }
+
+        final List<HttpRequest> uploads = httpClient.getRequests().stream() //
+                .filter(r -> r.getHttpMethod() == HttpMethod.PUT) //
+                .filter(r -> "/container/file.txt".equals(r.getUrl().getPath())) //
+                .collect(Collectors.toList());
+        assertEquals(1, uploads.size());
+        assertEquals("project=knime", URLDecoder.decode(uploads.get(0).getHeaders().getValue(TAGS),
+                StandardCharsets.UTF_8));
+    }
+}
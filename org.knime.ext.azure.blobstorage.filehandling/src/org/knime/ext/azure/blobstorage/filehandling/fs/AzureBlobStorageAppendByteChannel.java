@@ -0,0 +1,385 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlockBlobCommitBlockListOptions;
+import com.azure.storage.blob.options.BlockBlobStageBlockOptions;
+import com.azure.storage.blob.specialized.AppendBlobClient;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+
+/**
+ * Write-only {@link SeekableByteChannel} that appends to a blob by only
+ * transferring the new bytes, instead of downloading and uploading the whole
+ * blob. Append blobs are appended to with Append Block requests (see
+ * {@link #forAppendBlob}), block blobs by staging new blocks that are committed
+ * after the existing ones when the channel is closed (see
+ * {@link #forBlockBlob}). Written data is buffered and appended in blocks. As
+ * for any channel opened with {@link java.nio.file.StandardOpenOption#APPEND},
+ * all writes go to the end of the blob, regardless of the position.
+ *
+ * @author KNIME GmbH
+ */
+abstract class AzureBlobStorageAppendByteChannel implements SeekableByteChannel {
+
+    /**
+     * The maximum size of a single Append Block request that is supported by all
+     * service versions.
+     */
+    private static final int MAX_APPEND_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The maximum size of a staged block that is buffered in memory.
+     */
+    private static final int MAX_STAGED_BLOCK_SIZE = 100 * 1024 * 1024;
+
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+
+    /** The blob that is appended to. */
+    protected final AzureBlobStoragePath m_path;
+
+    private final byte[] m_buffer;
+
+    private int m_bufferLength;
+
+    private long m_appendedSize;
+
+    private boolean m_open = true;
+
+    /**
+     * @param path
+     *            The blob to append to.
+     * @param size
+     *            The current size of the blob.
+     * @param maxBlockSize
+     *            The maximum size of the blocks to append.
+     */
+    private AzureBlobStorageAppendByteChannel(final AzureBlobStoragePath path, final long size,
+            final int maxBlockSize) {
+        m_path = path;
+        m_appendedSize = size;
+        m_buffer = new byte[(int) Math.min(maxBlockSize,
+                path.getFileSystem().getUploadTransferOptions().getBlockSizeLong())];
+    }
+
+    /**
+     * Creates a channel that appends to an append blob.
+     *
+     * @param path
+     *            The blob to append to.
+     * @param client
+     *            The client of the append blob, which must exist.
+     * @param size
+     *            The current size of the blob.
+     * @return the channel.
+     */
+    static AzureBlobStorageAppendByteChannel forAppendBlob(final AzureBlobStoragePath path,
+            final AppendBlobClient client, final long size) {
+        return new AppendBlobChannel(path, client, size);
+    }
+
+    /**
+     * Creates a channel that appends to a block blob. The new blocks are committed
+     * after the given committed blocks when the channel is closed, on the
+     * condition that the blob was not modified in the meantime.
+     *
+     * @param path
+     *            The blob to append to.
+     * @param client
+     *            The client of the block blob, which must exist.
+     * @param eTag
+     *            The ETag of the blob whose blocks are given.
+     * @param committedBlockIds
+     *            The IDs of the committed blocks of the blob.
+     * @param maxNewBlocks
+     *            The maximum number of blocks that can be added to the blob.
+     * @param size
+     *            The current size of the blob.
+     * @param newBlockId
+     *            Supplies the IDs of the new blocks, which must have the same length
+     *            as the committed ones and must not be used by the blob yet.
+     * @param headers
+     *            The HTTP headers of the blob, which are set again when committing.
+     * @param metadata
+     *            The metadata of the blob, which is set again when committing.
+     * @param tags
+     *            The tags to set when committing, or null.
+     * @return the channel.
+     */
+    static AzureBlobStorageAppendByteChannel forBlockBlob(final AzureBlobStoragePath path,
+            final BlockBlobClient client, final String eTag, final List<String> committedBlockIds,
+            final int maxNewBlocks, final long size, final Supplier<String> newBlockId, final BlobHttpHeaders headers,
+            final Map<String, String> metadata, final Map<String, String> tags) {
+        final BlockBlobChannel channel = new BlockBlobChannel(path, client, eTag, committedBlockIds, maxNewBlocks,
+                size, newBlockId);
+        channel.m_headers = headers;
+        channel.m_metadata = metadata;
+        channel.m_tags = tags;
+        return channel;
+    }
+
+    /**
+     * Appends the given block to the blob.
+     *
+     * @param buffer
+     *            The buffer holding the block.
+     * @param length
+     *            The length of the block.
+     * @throws IOException
+     */
+    protected abstract void appendBlock(byte[] buffer, int length) throws IOException;
+
+    /**
+     * Called when the channel is closed, after the last block was appended.
+     *
+     * @throws IOException
+     */
+    protected void commit() throws IOException {
+    }
+
+    @Override
+    public boolean isOpen() {
+        return m_open;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        throw new NonReadableChannelException();
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        ensureOpen();
+        final int length = src.remaining();
+        while (src.hasRemaining()) {
+            final int chunk = Math.min(src.remaining(), m_buffer.length - m_bufferLength);
+            src.get(m_buffer, m_bufferLength, chunk);
+            m_bufferLength += chunk;
+            if (m_bufferLength == m_buffer.length) {
+                appendBuffer();
+            }
+        }
+        return length;
+    }
+
+    private void appendBuffer() throws IOException {
+        appendBlock(m_buffer, m_bufferLength);
+        m_appendedSize += m_bufferLength;
+        m_bufferLength = 0;
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return size();
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        // writes always append, hence the position has no effect
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return m_appendedSize + m_bufferLength;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) throws IOException {
+        ensureOpen();
+        if (size < size()) {
+            throw new IOException("Blobs opened for appending cannot be truncated: " + m_path.toString());
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!m_open) {
+            return;
+        }
+        m_open = false;
+
+        try {
+            if (m_bufferLength > 0) {
+                appendBuffer();
+            }
+            commit();
+        } finally {
+            m_path.getFileSystem().removeFromAttributeCacheDeep(m_path);
+        }
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!m_open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    private static final class AppendBlobChannel extends AzureBlobStorageAppendByteChannel {
+
+        private final AppendBlobClient m_client;
+
+        private AppendBlobChannel(final AzureBlobStoragePath path, final AppendBlobClient client,
+                final long size) {
+            super(path, size, MAX_APPEND_BLOCK_SIZE);
+            m_client = client;
+        }
+
+        @Override
+        protected void appendBlock(final byte[] buffer, final int length) throws IOException {
+            try {
+                m_client.appendBlockWithResponse(new ByteArrayInputStream(buffer, 0, length), length, null, null,
+                        null, m_path.getFileSystem().getTransferContext(length));
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, m_path.toString());
+            }
+        }
+    }
+
+    private static final class BlockBlobChannel extends AzureBlobStorageAppendByteChannel {
+
+        private final BlockBlobClient m_client;
+
+        private final String m_eTag;
+
+        private final List<String> m_blockIds;
+
+        private final int m_maxBlocks;
+
+        private final Supplier<String> m_newBlockId;
+
+        private BlobHttpHeaders m_headers;
+
+        private Map<String, String> m_metadata;
+
+        private Map<String, String> m_tags;
+
+        private boolean m_staged;
+
+        private BlockBlobChannel(final AzureBlobStoragePath path, final BlockBlobClient client, final String eTag,
+                final List<String> committedBlockIds, final int maxNewBlocks, final long size,
+                final Supplier<String> newBlockId) {
+            super(path, size, MAX_STAGED_BLOCK_SIZE);
+            m_client = client;
+            m_eTag = eTag;
+            m_blockIds = new ArrayList<>(committedBlockIds);
+            m_maxBlocks = committedBlockIds.size() + maxNewBlocks;
+            m_newBlockId = newBlockId;
+        }
+
+        @Override
+        protected void appendBlock(final byte[] buffer, final int length) throws IOException {
+            if (m_blockIds.size() >= m_maxBlocks) {
+                throw new IOException(String.format(
+                        "Cannot append more than %d blocks to %s, write the file as a whole instead",
+                        m_maxBlocks, m_path.toString()));
+            }
+
+            final String blockId = m_newBlockId.get();
+            try {
+                m_client.stageBlockWithResponse(new BlockBlobStageBlockOptions(blockId, //
+                        BinaryData.fromBytes(length == buffer.length ? buffer : copyOf(buffer, length))), //
+                        null, m_path.getFileSystem().getTransferContext(length));
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, m_path.toString());
+            }
+            m_blockIds.add(blockId);
+            m_staged = true;
+        }
+
+        private static byte[] copyOf(final byte[] buffer, final int length) {
+            final byte[] copy = new byte[length];
+            System.arraycopy(buffer, 0, copy, 0, length);
+            return copy;
+        }
+
+        @Override
+        protected void commit() throws IOException {
+            if (!m_staged && m_tags == null) {
+                return;
+            }
+            try {
+                m_client.commitBlockListWithResponse(new BlockBlobCommitBlockListOptions(m_blockIds) //
+                        .setHeaders(m_headers) //
+                        .setMetadata(m_metadata) //
+                        .setTags(m_tags) //
+                        .setRequestConditions(new BlobRequestConditions().setIfMatch(m_eTag)), //
+                        null, m_path.getFileSystem().getTransferContext(0));
+            } catch (BlobStorageException ex) {
+                if (ex.getStatusCode() == HTTP_PRECONDITION_FAILED) {
+                    throw new IOException(
+                            "The file was modified while appending to it, nothing was appended: " + m_path, ex);
+                }
+                throw AzureUtils.toIOE(ex, m_path.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.knime.ext.azure.AzureUtils;
+import org.knime.filehandling.core.connections.base.attributes.BaseFileAttributes;
+
+import com.azure.storage.blob.BlobAsyncClient;
+import com.azure.storage.blob.BlobContainerAsyncClient;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementation of the bulk operations of {@link AzureBlobStorageFileSystem}.
+ * The requests for the individual paths are sent with the asynchronous client,
+ * with a bounded number of requests in flight (see
+ * {@link AzureBlobStorageFileSystem#getBulkOperationConcurrency()}). Whether a
+ * path that is not a blob is a directory is checked with an asynchronous listing
+ * request. Other cases that need more than a single request (deleting
+ * directories, containers) fall back to the synchronous file system operations,
+ * which are then run on the transfer executor of the file system. Deleting a
+ * directory including its contents deletes the listed blobs asynchronously
+ * instead (see
+ * {@link AzureBlobStorageFileSystemProvider#deleteRecursively(AzureBlobStoragePath)}).
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageAsyncBulkOperations {
+
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private static final int HTTP_FORBIDDEN = 403;
+
+    private AzureBlobStorageAsyncBulkOperations() {
+    }
+
+    /**
+     * Reads the attributes of the given paths and adds them to the attribute
+     * cache.
+     *
+     * @param fs
+     *            The file system.
+     * @param paths
+     *            The paths to read the attributes of.
+     * @return the attributes by path, in the order of the given paths. Paths that
+     *         do not exist are not contained.
+     * @throws IOException
+     *             if reading the attributes of any path failed for another reason
+     *             than the path not existing.
+     */
+    static Map<AzureBlobStoragePath, BasicFileAttributes> readAttributes(final AzureBlobStorageFileSystem fs,
+            final Collection<? extends Path> paths) throws IOException {
+
+        final List<AzureBlobStoragePath> azurePaths = toAbsolutePaths(paths);
+        final Map<AzureBlobStoragePath, BasicFileAttributes> results = new HashMap<>();
+
+        final List<Optional<IOException>> failures = await(Flux.fromIterable(azurePaths) //
+                .flatMap(path -> readAttributes(fs, path) //
+                        .map(attrs -> {
+                            attrs.ifPresent(a -> {
+                                synchronized (results) {
+                                    results.put(path, a);
+                                }
+                            });
+                            return Optional.<IOException> empty();
+                        }) //
+                        .onErrorResume(ex -> Mono.just(Optional.of(toIOE(ex, path)))), //
+                        fs.getBulkOperationConcurrency()) //
+                .collectList());
+        throwFailures(failures);
+
+        final Map<AzureBlobStoragePath, BasicFileAttributes> ordered = new LinkedHashMap<>();
+        for (final AzureBlobStoragePath path : azurePaths) {
+            if (results.containsKey(path)) {
+                ordered.put(path, results.get(path));
+            }
+        }
+        return ordered;
+    }
+
+    @SuppressWarnings("resource")
+    private static Mono<Optional<BasicFileAttributes>> readAttributes(final AzureBlobStorageFileSystem fs,
+            final AzureBlobStoragePath path) {
+
+        if (path.isRoot() || path.getBlobName() == null || path.isDirectory()) {
+            return readAttributesSynchronously(fs, path);
+        }
+        if (fs.getNegativeCache().isKnownMissing(path)) {
+            return Mono.just(Optional.empty());
+        }
+
+        return blobClient(fs, path).getProperties() //
+                .map(properties -> {
+                    final BaseFileAttributes attrs = AzureBlobStorageFileSystemProvider
+                            .createAttrsFromProperties(properties, path, false);
+                    fs.addToAttributeCache(path, attrs);
+                    return Optional.<BasicFileAttributes> of(attrs);
+                }) //
+                .onErrorResume(BlobStorageException.class, ex -> ex.getStatusCode() == HTTP_NOT_FOUND //
+                        ? readDirectoryAttributes(fs, path) // may be a directory
+                        : Mono.error(ex));
+    }
+
+    /**
+     * Reads the attributes of a path that is not a blob. It is a directory if any
+     * blob (including directory markers) exists below it, which is checked with a
+     * single listing request, sent with the asynchronous client as well.
+     */
+    @SuppressWarnings("resource")
+    private static Mono<Optional<BasicFileAttributes>> readDirectoryAttributes(
+            final AzureBlobStorageFileSystem fs, final AzureBlobStoragePath path) {
+
+        final ListBlobsOptions opts = new ListBlobsOptions() //
+                .setPrefix(path.toDirectoryPath().getBlobName()) //
+                .setMaxResultsPerPage(1);
+
+        return fs.getAsyncClient() //
+                .getBlobContainerAsyncClient(path.getBucketName()) //
+                .listBlobsByHierarchy(fs.getSeparator(), opts) //
+                .byPage() //
+                .next() //
+                .map(page -> !page.getValue().isEmpty()) //
+                .defaultIfEmpty(false) //
+                .map(isDirectory -> {
+                    if (!isDirectory.booleanValue()) {
+                        fs.getNegativeCache().addMissing(path);
+                        return Optional.<BasicFileAttributes> empty();
+                    }
+                    final BaseFileAttributes attrs =
+                            AzureBlobStoragePathIteratorFactory.createDirectoryAttributes(path);
+                    fs.addToAttributeCache(path, attrs);
+                    return Optional.<BasicFileAttributes> of(attrs);
+                }) //
+                .onErrorResume(BlobStorageException.class, ex -> {
+                    if (ex.getStatusCode() == HTTP_NOT_FOUND) {
+                        // the container does not exist
+                        return Mono.just(Optional.empty());
+                    } else if (ex.getStatusCode() == HTTP_FORBIDDEN) {
+                        // credentials that may not list (e.g. a SAS for a single blob) need
+                        // the sequential probes of the file system provider
+                        return readAttributesSynchronously(fs, path);
+                    } else {
+                        return Mono.error(ex);
+                    }
+                });
+    }
+
+    @SuppressWarnings("resource")
+    private static Mono<Optional<BasicFileAttributes>> readAttributesSynchronously(
+            final AzureBlobStorageFileSystem fs, final AzureBlobStoragePath path) {
+        return runOnTransferExecutor(fs, () -> {
+            try {
+                return Optional.of(fs.provider().readAttributes(path, BasicFileAttributes.class));
+            } catch (NoSuchFileException ex) { // NOSONAR missing paths are not part of the result
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Deletes the given files and (empty) directories.
+     *
+     * @param fs
+     *            The file system.
+     * @param paths
+     *            The paths to delete.
+     * @throws IOException
+     *             if any path could not be deleted. All other paths are deleted
+     *             nevertheless.
+     */
+    @SuppressWarnings("resource")
+    static void delete(final AzureBlobStorageFileSystem fs, final Collection<? extends Path> paths)
+            throws IOException {
+        final List<AzureBlobStoragePath> azurePaths = toAbsolutePaths(paths);
+        final Set<AzureBlobStoragePath> parents = new LinkedHashSet<>();
+
+        final List<Optional<IOException>> failures = await(Flux.fromIterable(azurePaths) //
+                .flatMap(path -> delete(fs, path) //
+                        .map(deletedBlob -> {
+                            if (Boolean.TRUE.equals(deletedBlob)) {
+                                synchronized (parents) {
+                                    parents.add((AzureBlobStoragePath) path.getParent());
+                                }
+                            }
+                            return Optional.<IOException> empty();
+                        }) //
+                        .onErrorResume(ex -> Mono.just(Optional.of(toIOE(ex, path)))), //
+                        fs.getBulkOperationConcurrency()) //
+                .collectList());
+
+        // a directory without blobs ceases to exist, check each parent only once
+        final AzureBlobStorageFileSystemProvider provider = (AzureBlobStorageFileSystemProvider) fs.provider();
+        for (final AzureBlobStoragePath parent : parents) {
+            provider.restoreDirectoryIfMissing(parent);
+        }
+
+        throwFailures(failures);
+    }
+
+    /**
+     * Deletes all blobs below the given directory, including directory markers.
+     * The blobs are found with a single flat listing (see
+     * {@link AzureBlobStoragePathIteratorFactory#listBlobsFlat(AzureBlobStoragePath)}),
+     * whose pages are requested on a thread that may block, while the deletions
+     * are sent with the asynchronous client.
+     *
+     * @param fs
+     *            The file system.
+     * @param dir
+     *            The directory whose blobs to delete.
+     * @throws IOException
+     *             if listing the directory or deleting any blob failed. All other
+     *             listed blobs are deleted nevertheless.
+     */
+    @SuppressWarnings("resource")
+    static void deleteBlobs(final AzureBlobStorageFileSystem fs, final AzureBlobStoragePath dir)
+            throws IOException {
+        final BlobContainerAsyncClient container = fs.getAsyncClient() //
+                .getBlobContainerAsyncClient(dir.getBucketName());
+
+        final List<Optional<IOException>> failures = await(Flux //
+                .fromIterable(AzureBlobStoragePathIteratorFactory.listBlobsFlat(dir)) //
+                .subscribeOn(Schedulers.boundedElastic()) //
+                .flatMap(item -> container.getBlobAsyncClient(item.getName()).deleteIfExists() //
+                        .map(deleted -> Optional.<IOException> empty()) //
+                        .onErrorResume(ex -> Mono.just(Optional.of(toIOE(ex,
+                                new AzureBlobStoragePath(fs, dir.getBucketName(), item.getName()))))), //
+                        fs.getBulkOperationConcurrency()) //
+                .onErrorResume(ex -> Mono.just(Optional.of(toIOE(ex, dir)))) //
+                .collectList());
+        throwFailures(failures);
+    }
+
+    /**
+     * @return a {@link Mono} emitting true if the path was deleted as a single
+     *         blob, whose parent still needs to be checked, or false if it was
+     *         deleted through the file system provider.
+     */
+    @SuppressWarnings("resource")
+    private static Mono<Boolean> delete(final AzureBlobStorageFileSystem fs, final AzureBlobStoragePath path) {
+        final Mono<Boolean> deleteThroughProvider = runOnTransferExecutor(fs, () -> {
+            Files.delete(path);
+            return false;
+        });
+
+        if (path.isRoot() || path.getBlobName() == null || path.isDirectory()) {
+            return deleteThroughProvider;
+        }
+
+        return blobClient(fs, path).deleteIfExists() //
+                .flatMap(deleted -> {
+                    if (Boolean.TRUE.equals(deleted)) {
+                        fs.removeFromAttributeCacheDeep(path);
+                        return Mono.just(true);
+                    }
+                    // may be a directory
+                    return deleteThroughProvider;
+                });
+    }
+
+    @SuppressWarnings("resource")
+    private static BlobAsyncClient blobClient(final AzureBlobStorageFileSystem fs, final AzureBlobStoragePath path) {
+        return fs.getAsyncClient() //
+                .getBlobContainerAsyncClient(path.getBucketName()) //
+                .getBlobAsyncClient(path.getBlobName());
+    }
+
+    @FunctionalInterface
+    private interface IOCallable<T> {
+        T call() throws IOException;
+    }
+
+    private static <T> Mono<T> runOnTransferExecutor(final AzureBlobStorageFileSystem fs,
+            final IOCallable<T> callable) {
+        return Mono.fromFuture(() -> CompletableFuture.supplyAsync(() -> {
+            try {
+                return callable.call();
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        }, fs.getTransferExecutor()));
+    }
+
+    private static List<AzureBlobStoragePath> toAbsolutePaths(final Collection<? extends Path> paths) {
+        return paths.stream() //
+                .map(p -> (AzureBlobStoragePath) p.toAbsolutePath().normalize()) //
+                .toList();
+    }
+
+    private static <T> T await(final Mono<T> mono) throws IOException {
+        try {
+            return mono.toFuture().get();
+        } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+            throw new InterruptedIOException("Interrupted while waiting for bulk operation");
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    private static IOException toIOE(final Throwable ex, final AzureBlobStoragePath path) {
+        final Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof IOException ioe) {
+            return ioe;
+        } else if (cause instanceof BlobStorageException bse) {
+            return AzureUtils.toIOE(bse, path.toString());
+        } else {
+            return new IOException(path.toString() + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void throwFailures(final List<Optional<IOException>> failures) throws IOException {
+        IOException first = null;
+        for (final Optional<IOException> failure : failures) {
+            if (failure.isEmpty()) {
+                continue;
+            }
+            if (first == null) {
+                first = failure.get();
+            } else {
+                first.addSuppressed(failure.get());
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.core.exception.HttpResponseException;
+
+/**
+ * Runs many independent requests (e.g. deleting or copying the blobs of a
+ * directory) on the transfer executor of the file system, with a bounded number
+ * of requests in flight. The first failure stops further submissions and is
+ * rethrown.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageBulkOperation {
+
+    /**
+     * A single request of a bulk operation.
+     */
+    @FunctionalInterface
+    interface Task {
+        /**
+         * Runs the request.
+         *
+         * @throws IOException
+         *             if the request failed.
+         */
+        void run() throws IOException;
+    }
+
+    private final AzureBlobStorageFileSystem m_fs;
+
+    private final String m_description;
+
+    private final Semaphore m_permits;
+
+    private final List<Future<?>> m_futures = new ArrayList<>();
+
+    private volatile Throwable m_failure; // NOSONAR only the first failure is kept, races are harmless
+
+    /**
+     * @param fs
+     *            The file system to run the requests for.
+     * @param description
+     *            The description of the operation, used in error messages (e.g.
+     *            the path of the directory that is deleted).
+     */
+    AzureBlobStorageBulkOperation(final AzureBlobStorageFileSystem fs, final String description) {
+        m_fs = fs;
+        m_description = description;
+        m_permits = new Semaphore(Math.max(1, fs.getBulkOperationConcurrency()));
+    }
+
+    /**
+     * Submits a request. Blocks while the maximum number of requests is in
+     * flight.
+     *
+     * @param task
+     *            The request to run.
+     * @throws IOException
+     *             if a previously submitted request failed.
+     */
+    void submit(final Task task) throws IOException {
+        rethrowFailure();
+
+        try {
+            m_permits.acquire();
+        } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+            cancel();
+            throw new InterruptedIOException("Interrupted while processing " + m_description);
+        }
+
+        try {
+            m_futures.add(m_fs.getTransferExecutor().submit(() -> {
+                try {
+                    if (m_failure == null) {
+                        task.run();
+                    }
+                } catch (IOException | RuntimeException ex) { // NOSONAR failure is rethrown by the submitting thread
+                    if (m_failure == null) {
+                        m_failure = ex;
+                    }
+                } finally {
+                    m_permits.release();
+                }
+            }));
+        } catch (RuntimeException ex) { // NOSONAR executor may reject the task if the file system was closed
+            m_permits.release();
+            cancel();
+            throw new IOException("Could not process " + m_description, ex);
+        }
+
+        // forget about finished requests, so that memory stays bounded
+        m_futures.removeIf(Future::isDone);
+    }
+
+    /**
+     * Waits until all submitted requests have finished.
+     *
+     * @throws IOException
+     *             if any of the requests failed.
+     */
+    void awaitCompletion() throws IOException {
+        for (final Future<?> future : m_futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+                cancel();
+                throw new InterruptedIOException("Interrupted while processing " + m_description);
+            } catch (ExecutionException ex) {
+                cancel();
+                throw new IOException("Could not process " + m_description, ex.getCause());
+            }
+        }
+        m_futures.clear();
+        rethrowFailure();
+    }
+
+    private void cancel() {
+        m_futures.forEach(f -> f.cancel(true));
+        m_futures.clear();
+    }
+
+    private void rethrowFailure() throws IOException {
+        final Throwable failure = m_failure;
+        if (failure == null) {
+            return;
+        }
+
+        cancel();
+        if (failure instanceof IOException ioe) {
+            throw ioe;
+        } else if (failure instanceof HttpResponseException httpEx) {
+            throw AzureUtils.toIOE(httpEx, m_description);
+        } else {
+            throw new IOException("Could not process " + m_description, failure);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.util.HttpClientOptions;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobStorageException;
+
+/**
+ * Process-wide, reference-counted cache of the {@link HttpClient}s that the
+ * {@link BlobServiceClient}s of the connections send their requests with. HTTP
+ * clients are shared by all file systems with the same client settings, so that
+ * repeated executions of a connector (e.g. in a loop) reuse the warm connection
+ * pool. An HTTP client that is not used by any file system is evicted after
+ * {@link #IDLE_EVICTION_TIMEOUT}.
+ * <p>
+ * Only the HTTP client is shared. Every connection creates its own service
+ * client, whose pipeline authenticates the requests with the credential of
+ * that connection, and checks its credentials itself.
+ * </p>
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageClientCache {
+
+    /**
+     * Time after which an HTTP client that is not used by any file system is
+     * evicted.
+     */
+    static final Duration IDLE_EVICTION_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Map<HttpClientKey, CachedHttpClient> HTTP_CLIENTS = new HashMap<>();
+
+    private AzureBlobStorageClientCache() {
+    }
+
+    /**
+     * Creates the client for a connection configuration.
+     */
+    @FunctionalInterface
+    interface ClientFactory {
+
+        /**
+         * @param config
+         *            The connection configuration.
+         * @param httpClient
+         *            The (shared) HTTP client to send the requests with.
+         * @return the client
+         */
+        BlobServiceClient create(AzureBlobStorageFSConnectionConfig config, HttpClient httpClient);
+    }
+
+    /**
+     * Returns a lease on a client for the given configuration, which sends its
+     * requests with the cached HTTP client for the client settings of the
+     * configuration, creating the HTTP client if there is no cached one. The lease
+     * must be {@link ClientLease#release() released} when the client is not used
+     * anymore.
+     *
+     * @param config
+     *            The connection configuration.
+     * @param clientFactory
+     *            Creates the client of the connection.
+     * @return a lease on the client.
+     */
+    static ClientLease acquire(final AzureBlobStorageFSConnectionConfig config,
+            final ClientFactory clientFactory) {
+        final CachedHttpClient cached;
+        synchronized (AzureBlobStorageClientCache.class) {
+            evictIdleClients(System.currentTimeMillis());
+            cached = HTTP_CLIENTS.computeIfAbsent(HttpClientKey.of(config),
+                    k -> new CachedHttpClient(HttpClient.createDefault(createHttpClientOptions(config))));
+            cached.m_refCount++;
+        }
+
+        try {
+            return new ClientLease(clientFactory.create(config, cached.m_httpClient), cached);
+        } catch (RuntimeException ex) {
+            release(cached);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns a lease on a client that does not use a cached HTTP client.
+     *
+     * @param client
+     *            The client.
+     * @return a lease on the client.
+     */
+    static ClientLease unshared(final BlobServiceClient client) {
+        return new ClientLease(client, null);
+    }
+
+    private static HttpClientOptions createHttpClientOptions(final AzureBlobStorageFSConnectionConfig config) {
+        final var clientOptions = new HttpClientOptions();
+        // also bounds the number of concurrent requests, which is only 5 per host by default
+        clientOptions.setMaximumConnectionPoolSize(config.getMaxConnections());
+        clientOptions.setConnectionIdleTimeout(config.getConnectionIdleTimeout());
+        if (AzureUtils.isProxyActive()) {
+            clientOptions.setProxyOptions(AzureUtils.loadSystemProxyOptions());
+        }
+        return clientOptions;
+    }
+
+    private static synchronized void release(final CachedHttpClient cached) {
+        cached.m_refCount--;
+        if (cached.m_refCount == 0) {
+            cached.m_lastReleased = System.currentTimeMillis();
+            // also evicts the client if no other connection is acquired or released afterwards
+            CompletableFuture.delayedExecutor(IDLE_EVICTION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(AzureBlobStorageClientCache::evictIdleClients);
+        }
+        evictIdleClients(System.currentTimeMillis());
+    }
+
+    private static synchronized void evictIdleClients() {
+        evictIdleClients(System.currentTimeMillis());
+    }
+
+    private static void evictIdleClients(final long now) {
+        // dropping the reference is sufficient, idle connections are closed by the
+        // connection pool of the HTTP client
+        HTTP_CLIENTS.values().removeIf(cached -> cached.m_refCount == 0
+                && now - cached.m_lastReleased >= IDLE_EVICTION_TIMEOUT.toMillis());
+    }
+
+    /**
+     * Identifies the HTTP clients that can be shared, i.e. the settings of the
+     * connection pool and the proxy. Credentials are not part of the key, since
+     * they are applied by the pipeline of each connection.
+     */
+    private record HttpClientKey(int maxConnections, Duration connectionIdleTimeout, String proxy) {
+
+        static HttpClientKey of(final AzureBlobStorageFSConnectionConfig config) {
+            return new HttpClientKey(config.getMaxConnections(), //
+                    config.getConnectionIdleTimeout(), //
+                    describeProxy());
+        }
+
+        private static String describeProxy() {
+            if (!AzureUtils.isProxyActive()) {
+                return null;
+            }
+            final var proxyOptions = AzureUtils.loadSystemProxyOptions();
+            return String.format("%s:%s@%s", proxyOptions.getType(), proxyOptions.getUsername(),
+                    proxyOptions.getAddress());
+        }
+    }
+
+    private static final class CachedHttpClient {
+
+        private final HttpClient m_httpClient;
+
+        /** Guarded by the class lock of {@link AzureBlobStorageClientCache}. */
+        private int m_refCount;
+
+        /** Guarded by the class lock of {@link AzureBlobStorageClientCache}. */
+        private long m_lastReleased;
+
+        private CachedHttpClient(final HttpClient httpClient) {
+            m_httpClient = httpClient;
+        }
+    }
+
+    /**
+     * A file system's client, and its lease on the (shared) HTTP client of the
+     * client.
+     */
+    static final class ClientLease {
+
+        private final BlobServiceClient m_client;
+
+        private final CachedHttpClient m_cached;
+
+        private boolean m_released;
+
+        private ClientLease(final BlobServiceClient client, final CachedHttpClient cached) {
+            m_client = client;
+            m_cached = cached;
+        }
+
+        /**
+         * @return the client
+         */
+        BlobServiceClient getClient() {
+            return m_client;
+        }
+
+        /**
+         * Checks the credentials of the client with a request to the service.
+         *
+         * @return true if the credentials have permission to list containers,
+         *         false otherwise.
+         * @throws IOException
+         *             If authentication failed completely.
+         */
+        boolean canCredentialsListContainers() throws IOException {
+            try {
+                // initialize lazy iterator by calling haxNext to make list containers request
+                m_client.listBlobContainers().iterator().hasNext();// NOSONAR
+                return true;
+            } catch (BlobStorageException ex) {
+                // rethrows the given exception as IOE, if error is non-recoverable
+                AzureUtils.handleAuthException(ex);
+                return false;
+            }
+        }
+
+        /**
+         * Releases the lease. Subsequent calls have no effect.
+         */
+        synchronized void release() {
+            if (m_released) {
+                return;
+            }
+            m_released = true;
+            if (m_cached != null) {
+                AzureBlobStorageClientCache.release(m_cached);
+            }
+        }
+    }
+}
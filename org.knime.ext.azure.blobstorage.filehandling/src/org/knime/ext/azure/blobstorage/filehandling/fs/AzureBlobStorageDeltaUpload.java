@@ -0,0 +1,475 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.Block;
+import com.azure.storage.blob.models.BlockList;
+import com.azure.storage.blob.models.BlockListType;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlobDownloadToFileOptions;
+import com.azure.storage.blob.options.BlockBlobCommitBlockListOptions;
+import com.azure.storage.blob.options.BlockBlobStageBlockOptions;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+
+/**
+ * Rewrites a block blob that was modified through a local copy by uploading
+ * only the modified ranges. The committed blocks of the blob are remembered
+ * when the local copy is downloaded, and the ranges that are written to the
+ * local copy are tracked. When the copy is uploaded, committed blocks that lie
+ * entirely in unmodified ranges are reused in the new block list, and only the
+ * remaining ranges are staged as new blocks. The block list is committed with
+ * an If-Match condition on the ETag of the downloaded version.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageDeltaUpload {
+
+    private static final int MAX_BLOCKS = 50000;
+
+    /**
+     * The minimum length of block IDs for which new IDs can be generated without
+     * risking collisions with the existing ones.
+     */
+    private static final int MIN_BLOCK_ID_LENGTH = 8;
+
+    /**
+     * The minimum number of blocks that have to be left for appending new blocks
+     * to a blob in place.
+     */
+    private static final int MIN_FREE_BLOCKS = 1000;
+
+    /** The length of the block IDs of blobs that are created for appending. */
+    private static final int NEW_BLOB_BLOCK_ID_LENGTH = 16;
+
+    private static final int HTTP_PRECONDITION_FAILED = 412;
+
+    private final AzureBlobStoragePath m_path;
+
+    private final BlockBlobClient m_client;
+
+    private final String m_eTag;
+
+    private final List<Block> m_committedBlocks;
+
+    private final long m_size;
+
+    private final int m_blockIdLength;
+
+    /** Modified ranges, from start (inclusive) to end (exclusive). */
+    private final NavigableMap<Long, Long> m_dirtyRanges = new TreeMap<>();
+
+    private long m_minSize;
+
+    AzureBlobStorageDeltaUpload(final AzureBlobStoragePath path, final BlockBlobClient client,
+            final String eTag, final List<Block> committedBlocks, final int blockIdLength) {
+        m_path = path;
+        m_client = client;
+        m_eTag = eTag;
+        m_committedBlocks = committedBlocks;
+        m_size = committedBlocks.stream().mapToLong(Block::getSizeLong).sum();
+        m_blockIdLength = blockIdLength;
+        m_minSize = m_size;
+    }
+
+    /**
+     * Fetches the committed blocks of the given blob.
+     *
+     * @param path
+     *            The blob that is going to be modified.
+     * @return a new instance, or null if the blob is no block blob or consists of
+     *         a single request upload, so that there are no blocks to reuse.
+     */
+    @SuppressWarnings("resource")
+    static AzureBlobStorageDeltaUpload create(final AzureBlobStoragePath path) {
+        final BlockBlobClient client = path.getFileSystem().getContainerClient(path.getBucketName()) //
+                .getBlobClient(path.getBlobName()) //
+                .getBlockBlobClient();
+
+        final Response<BlockList> response;
+        try {
+            response = client.listBlocksWithResponse(BlockListType.COMMITTED, null, null,
+                    path.getFileSystem().getTransferContext(0));
+        } catch (BlobStorageException ex) { // NOSONAR e.g. an append blob, the blob is downloaded as a whole
+            return null;
+        }
+
+        final List<Block> blocks = response.getValue().getCommittedBlocks();
+        final String eTag = response.getHeaders().getValue(HttpHeaderName.ETAG);
+        if (blocks == null || blocks.isEmpty() || blocks.size() > MAX_BLOCKS || eTag == null) {
+            return null;
+        }
+
+        // all block IDs of a blob have the same length
+        final int blockIdLength;
+        try {
+            blockIdLength = Base64.getDecoder().decode(blocks.get(0).getName()).length;
+        } catch (IllegalArgumentException ex) { // NOSONAR not written by a Blob Storage client, upload as a whole
+            return null;
+        }
+        if (blockIdLength < MIN_BLOCK_ID_LENGTH) {
+            return null;
+        }
+        return new AzureBlobStorageDeltaUpload(path, client, eTag, blocks, blockIdLength);
+    }
+
+    /**
+     * Creates a channel that appends new blocks to the version of the blob whose
+     * blocks were fetched, keeping its HTTP headers and metadata.
+     *
+     * @param tags
+     *            The blob index tags to set, may be null.
+     * @return the channel, or null if too few blocks are left or the blob was
+     *         modified in the meantime, in which case the blob has to be
+     *         downloaded and uploaded again.
+     * @throws IOException
+     *             if the properties of the blob could not be fetched.
+     */
+    AzureBlobStorageAppendByteChannel newAppendChannel(final Map<String, String> tags) throws IOException {
+        final int freeBlocks = MAX_BLOCKS - m_committedBlocks.size();
+        if (freeBlocks < MIN_FREE_BLOCKS) {
+            return null;
+        }
+
+        final BlobProperties properties;
+        try {
+            properties = m_client.getProperties();
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+        if (!m_eTag.equals(properties.getETag())) {
+            return null;
+        }
+
+        // the Content-MD5 of the whole blob is not kept, it does not match anymore
+        final BlobHttpHeaders headers = new BlobHttpHeaders() //
+                .setContentType(properties.getContentType()) //
+                .setContentEncoding(properties.getContentEncoding()) //
+                .setContentLanguage(properties.getContentLanguage()) //
+                .setContentDisposition(properties.getContentDisposition()) //
+                .setCacheControl(properties.getCacheControl());
+
+        final List<String> committedIds = new ArrayList<>(m_committedBlocks.size());
+        m_committedBlocks.forEach(b -> committedIds.add(b.getName()));
+        final Set<String> usedIds = new HashSet<>(committedIds);
+        return AzureBlobStorageAppendByteChannel.forBlockBlob(m_path, m_client, m_eTag, committedIds, freeBlocks,
+                m_size, () -> newBlockId(usedIds, m_blockIdLength), headers, properties.getMetadata(), tags);
+    }
+
+    /**
+     * Creates a channel that appends blocks to a block blob that was just created
+     * without any blocks.
+     *
+     * @param path
+     *            The blob.
+     * @param client
+     *            The client of the blob.
+     * @param eTag
+     *            The ETag of the empty blob.
+     * @return the channel.
+     */
+    static AzureBlobStorageAppendByteChannel newAppendChannel(final AzureBlobStoragePath path,
+            final BlockBlobClient client, final String eTag) {
+        final Set<String> usedIds = new HashSet<>();
+        return AzureBlobStorageAppendByteChannel.forBlockBlob(path, client, eTag, List.of(), MAX_BLOCKS, 0,
+                () -> newBlockId(usedIds, NEW_BLOB_BLOCK_ID_LENGTH), null, null, null);
+    }
+
+    /**
+     * Downloads the version of the blob whose blocks were fetched.
+     *
+     * @param tempFile
+     *            The local file to download to.
+     * @return true if the blob was downloaded, false if the blob was modified in
+     *         the meantime, in which case this instance must not be used.
+     * @throws IOException
+     *             if the download failed for another reason.
+     */
+    boolean download(final Path tempFile) throws IOException {
+        final BlobDownloadToFileOptions options = new BlobDownloadToFileOptions(tempFile.toString()) //
+                .setRequestConditions(new BlobRequestConditions().setIfMatch(m_eTag)) //
+                .setOpenOptions(Set.of(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE));
+        try {
+            m_client.downloadToFileWithResponse(options, null, m_path.getFileSystem().getTransferContext(m_size));
+            return true;
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == HTTP_PRECONDITION_FAILED) {
+                return false;
+            }
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+    }
+
+    /**
+     * Records that the given range of the local copy was written to.
+     *
+     * @param start
+     *            The first modified byte.
+     * @param end
+     *            The byte after the last modified byte.
+     */
+    void markDirty(final long start, final long end) {
+        if (start >= end) {
+            return;
+        }
+
+        long mergedStart = start;
+        long mergedEnd = end;
+        final Map.Entry<Long, Long> floor = m_dirtyRanges.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            mergedStart = floor.getKey();
+            mergedEnd = Math.max(mergedEnd, floor.getValue());
+        }
+
+        Map.Entry<Long, Long> next = m_dirtyRanges.ceilingEntry(mergedStart);
+        while (next != null && next.getKey() <= mergedEnd) {
+            mergedEnd = Math.max(mergedEnd, next.getValue());
+            m_dirtyRanges.remove(next.getKey());
+            next = m_dirtyRanges.ceilingEntry(mergedStart);
+        }
+        m_dirtyRanges.put(mergedStart, mergedEnd);
+    }
+
+    /**
+     * Records that the local copy was truncated to the given size. Blocks beyond
+     * that size cannot be reused anymore, even if the copy grows again.
+     *
+     * @param size
+     *            The new size.
+     */
+    void markTruncated(final long size) {
+        m_minSize = Math.min(m_minSize, size);
+    }
+
+    private boolean isDirty(final long start, final long end) {
+        final Map.Entry<Long, Long> lower = m_dirtyRanges.lowerEntry(end);
+        return lower != null && lower.getValue() > start;
+    }
+
+    /**
+     * Uploads the local copy by reusing the unmodified committed blocks.
+     *
+     * @param tempFile
+     *            The local copy.
+     * @param tags
+     *            The blob index tags to set, may be null.
+     * @return true if the blob was uploaded, false if no blocks could be reused
+     *         or the blob was modified in the meantime, in which case the local
+     *         copy has to be uploaded as a whole.
+     * @throws IOException
+     *             if the upload failed.
+     */
+    boolean upload(final Path tempFile, final Map<String, String> tags) throws IOException {
+        final long length = Files.size(tempFile);
+        final long blockSize = m_path.getFileSystem().getUploadTransferOptions().getBlockSizeLong();
+
+        final List<Segment> segments = planSegments(length, blockSize);
+        if (segments.size() > MAX_BLOCKS || segments.stream().noneMatch(Segment::isReused)) {
+            return false;
+        }
+
+        final Set<String> usedIds = new HashSet<>();
+        m_committedBlocks.forEach(b -> usedIds.add(b.getName()));
+
+        final List<String> blockIds = new ArrayList<>(segments.size());
+        final AzureBlobStorageBulkOperation staging = new AzureBlobStorageBulkOperation(m_path.getFileSystem(),
+                m_path.toString());
+        for (final Segment segment : segments) {
+            if (segment.isReused()) {
+                blockIds.add(segment.m_blockId);
+            } else {
+                final String blockId = newBlockId(usedIds, m_blockIdLength);
+                blockIds.add(blockId);
+                staging.submit(() -> stageBlock(tempFile, blockId, segment.m_start, segment.m_end));
+            }
+        }
+        staging.awaitCompletion();
+
+        try {
+            m_client.commitBlockListWithResponse(new BlockBlobCommitBlockListOptions(blockIds) //
+                    .setTags(tags) //
+                    .setRequestConditions(new BlobRequestConditions().setIfMatch(m_eTag)), //
+                    null, m_path.getFileSystem().getTransferContext(0));
+            return true;
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == HTTP_PRECONDITION_FAILED) {
+                // the reused blocks may be gone, the staged blocks are discarded by the service
+                return false;
+            }
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+    }
+
+    /**
+     * Splits the local copy into committed blocks that can be reused and ranges
+     * (of at most the given block size) that need to be staged.
+     *
+     * @param length
+     *            The length of the local copy.
+     * @param blockSize
+     *            The maximum size of the ranges to stage.
+     * @return the segments, in the order of the local copy.
+     */
+    List<Segment> planSegments(final long length, final long blockSize) {
+        final List<Segment> segments = new ArrayList<>();
+        final long reusableEnd = Math.min(length, m_minSize);
+
+        long offset = 0;
+        long pendingStart = -1;
+        for (final Block block : m_committedBlocks) {
+            if (offset >= length) {
+                break;
+            }
+
+            final long end = offset + block.getSizeLong();
+            if (end <= reusableEnd && !isDirty(offset, end)) {
+                if (pendingStart >= 0) {
+                    addRanges(segments, pendingStart, offset, blockSize);
+                    pendingStart = -1;
+                }
+                segments.add(new Segment(block.getName(), offset, end));
+            } else if (pendingStart < 0) {
+                pendingStart = offset;
+            }
+            offset = end;
+        }
+
+        final long remainingStart = pendingStart >= 0 ? pendingStart : Math.min(offset, length);
+        addRanges(segments, remainingStart, length, blockSize);
+        return segments;
+    }
+
+    private static void addRanges(final List<Segment> segments, final long start, final long end,
+            final long blockSize) {
+        for (long rangeStart = start; rangeStart < end; rangeStart += blockSize) {
+            segments.add(new Segment(null, rangeStart, Math.min(end, rangeStart + blockSize)));
+        }
+    }
+
+    private static String newBlockId(final Set<String> usedIds, final int blockIdLength) {
+        final byte[] raw = new byte[blockIdLength];
+        String blockId;
+        do {
+            ThreadLocalRandom.current().nextBytes(raw);
+            blockId = Base64.getEncoder().encodeToString(raw);
+        } while (!usedIds.add(blockId));
+        return blockId;
+    }
+
+    private void stageBlock(final Path tempFile, final String blockId, final long start, final long end)
+            throws IOException {
+        try {
+            m_client.stageBlockWithResponse(
+                    new BlockBlobStageBlockOptions(blockId, BinaryData.fromFile(tempFile, start, end - start)), //
+                    null, m_path.getFileSystem().getTransferContext(end - start));
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+    }
+
+    /**
+     * A range of the local copy, which is either a committed block that is reused
+     * or a range that is staged as a new block.
+     */
+    static final class Segment {
+
+        private final String m_blockId;
+
+        private final long m_start;
+
+        private final long m_end;
+
+        private Segment(final String blockId, final long start, final long end) {
+            m_blockId = blockId;
+            m_start = start;
+            m_end = end;
+        }
+
+        boolean isReused() {
+            return m_blockId != null;
+        }
+
+        /**
+         * @return the ID of the reused block, or null if the range is staged.
+         */
+        String getBlockId() {
+            return m_blockId;
+        }
+
+        long getStart() {
+            return m_start;
+        }
+
+        long getEnd() {
+            return m_end;
+        }
+    }
+}
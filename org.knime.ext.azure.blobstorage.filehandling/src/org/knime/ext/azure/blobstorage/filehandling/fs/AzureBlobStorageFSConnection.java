@@ -51,6 +51,7 @@
 import java.io.IOException;
 
 import org.knime.credentials.base.oauth.api.JWTCredential;
+import org.knime.ext.azure.AzureRequestGovernor;
 import org.knime.ext.azure.AzureUtils;
 import org.knime.ext.azure.TokenCredentialFactory;
 import org.knime.ext.microsoft.authentication.credential.AzureStorageSasUrlCredential;
@@ -58,8 +59,7 @@
 import org.knime.filehandling.core.connections.FSConnection;
 import org.knime.filehandling.core.connections.base.BaseFSConnection;
 
-import com.azure.core.http.policy.TimeoutPolicy;
-import com.azure.core.util.HttpClientOptions;
+import com.azure.core.http.HttpClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.azure.storage.common.StorageSharedKeyCredential;
@@ -76,22 +76,31 @@ public class AzureBlobStorageFSConnection extends BaseFSConnection {
     private final AzureBlobStorageFileSystem m_filesystem;
 
     /**
+     * Creates a new connection. The connection pool of the underlying
+     * {@link BlobServiceClient} is shared with other connections with the same
+     * client settings (see {@link AzureBlobStorageClientCache}).
+     *
      * @param config
      *            Connection configuration
      * @throws IOException
      */
     public AzureBlobStorageFSConnection(final AzureBlobStorageFSConnectionConfig config) throws IOException {
-        final BlobServiceClient client = createServiceClient(config);
-        m_filesystem = new AzureBlobStorageFileSystem(config, client, CACHE_TTL);
+        final var clientLease = AzureBlobStorageClientCache.acquire(config,
+                AzureBlobStorageFSConnection::createServiceClient);
+        m_filesystem = new AzureBlobStorageFileSystem(config, clientLease, CACHE_TTL);
     }
 
-    private static BlobServiceClient createServiceClient(final AzureBlobStorageFSConnectionConfig config) {
+    private static BlobServiceClient createServiceClient(final AzureBlobStorageFSConnectionConfig config,
+            final HttpClient httpClient) {
 
         final var credential = config.getCredential();
 
         final BlobServiceClientBuilder builder = new BlobServiceClientBuilder() //
                 .endpoint(AzureUtils.getEndpoint(credential)) //
-                .addPolicy(new TimeoutPolicy(config.getTimeout()));
+                .httpClient(httpClient) //
+                // before the timeout policy, so that waiting for the governor does not count as timeout
+                .addPolicy(AzureRequestGovernor.getPolicy()) //
+                .addPolicy(new AzureBlobStorageTimeoutPolicy(config.getTimeout()));
 
         if (credential instanceof AzureStorageSharedKeyCredential sharedKeyCred) {
             builder.credential(new StorageSharedKeyCredential(//
@@ -105,11 +114,6 @@ private static BlobServiceClient createServiceClient(final AzureBlobStorageFSCon
             throw new UnsupportedOperationException("Unsupported credential type " + credential.getType());
         }
 
-        if (AzureUtils.isProxyActive()) {
-            final var clientOptions = new HttpClientOptions();
-            clientOptions.setProxyOptions(AzureUtils.loadSystemProxyOptions());
-            builder.clientOptions(clientOptions);
-        }
         return builder.buildClient();
     }
 
@@ -69,9 +69,94 @@ public class AzureBlobStorageFSConnectionConfig extends BaseFSConnectionConfig {
      */
     public static final int DEFAULT_TIMEOUT = 30;
 
+    /**
+     * Default size (in MB) of the blocks that are staged when uploading a file.
+     */
+    public static final int DEFAULT_UPLOAD_BLOCK_SIZE_MB = 8;
+
+    /**
+     * Maximum size (in MB) of a block, as accepted by the service.
+     */
+    public static final int MAX_UPLOAD_BLOCK_SIZE_MB = 4000;
+
+    /**
+     * Default number of blocks that are uploaded in parallel.
+     */
+    public static final int DEFAULT_UPLOAD_MAX_CONCURRENCY = 8;
+
+    /**
+     * Default size (in MB) up to which a file is uploaded with a single request.
+     */
+    public static final int DEFAULT_UPLOAD_SINGLE_SHOT_THRESHOLD_MB = 256;
+
+    /**
+     * Maximum size (in MB) of a blob that is uploaded with a single request, as
+     * accepted by the service.
+     */
+    public static final int MAX_UPLOAD_SINGLE_SHOT_THRESHOLD_MB = 5000;
+
+    /**
+     * Default number of blocks a streaming upload may have in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_UPLOAD_BLOCKS = 4;
+
+    /**
+     * Default size (in MB) of the ranges that are requested when reading a blob.
+     */
+    public static final int DEFAULT_READ_CHUNK_SIZE_MB = 4;
+
+    /**
+     * Default number of ranges that are fetched ahead of the current read
+     * position.
+     */
+    public static final int DEFAULT_READ_AHEAD_DEPTH = 4;
+
+    /**
+     * Default number of entries that are requested per page when listing a
+     * directory. This is the maximum supported by the service.
+     */
+    public static final int DEFAULT_LIST_PAGE_SIZE = 5000;
+
+    /**
+     * Default number of requests that bulk operations (e.g. recursive deletes)
+     * have in flight.
+     */
+    public static final int DEFAULT_BULK_OPERATION_CONCURRENCY = 32;
+
+    /**
+     * Default maximum number of HTTP connections to the storage account.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+    /**
+     * Default time (in seconds) after which idle HTTP connections are closed.
+     */
+    public static final int DEFAULT_CONNECTION_IDLE_TIMEOUT = 60;
+
+    /**
+     * Default maximum size (in MB) of the local read cache.
+     */
+    public static final int DEFAULT_READ_CACHE_SIZE_MB = 1024;
+
+    private static final long MB = 1024 * 1024L;
+
     private Credential m_credential;
     private Duration m_timeout;
     private boolean m_normalizePaths;
+    private long m_uploadBlockSize = DEFAULT_UPLOAD_BLOCK_SIZE_MB * MB;
+    private int m_uploadMaxConcurrency = DEFAULT_UPLOAD_MAX_CONCURRENCY;
+    private long m_uploadSingleShotThreshold = DEFAULT_UPLOAD_SINGLE_SHOT_THRESHOLD_MB * MB;
+    private boolean m_streamingWrites = true;
+    private int m_maxInFlightUploadBlocks = DEFAULT_MAX_IN_FLIGHT_UPLOAD_BLOCKS;
+    private int m_readChunkSize = (int) (DEFAULT_READ_CHUNK_SIZE_MB * MB);
+    private int m_readAheadDepth = DEFAULT_READ_AHEAD_DEPTH;
+    private int m_listPageSize = DEFAULT_LIST_PAGE_SIZE;
+    private int m_bulkOperationConcurrency = DEFAULT_BULK_OPERATION_CONCURRENCY;
+    private boolean m_skipMarkerCleanupOfNonEmptyDirectories;
+    private int m_maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private Duration m_connectionIdleTimeout = Duration.ofSeconds(DEFAULT_CONNECTION_IDLE_TIMEOUT);
+    private boolean m_readCacheEnabled;
+    private long m_readCacheSize = DEFAULT_READ_CACHE_SIZE_MB * MB;
 
     /**
      * Constructor.
@@ -137,4 +222,241 @@ public boolean isNormalizePaths() {
     public void setNormalizePaths(final boolean normalizePaths) {
         m_normalizePaths = normalizePaths;
     }
+
+    /**
+     * @return the size in bytes of the blocks that are staged when uploading a
+     *         file
+     */
+    public long getUploadBlockSize() {
+        return m_uploadBlockSize;
+    }
+
+    /**
+     * @param uploadBlockSize
+     *            the size in bytes of the blocks that are staged when uploading a
+     *            file
+     */
+    public void setUploadBlockSize(final long uploadBlockSize) {
+        m_uploadBlockSize = uploadBlockSize;
+    }
+
+    /**
+     * @return the maximum number of blocks that are uploaded in parallel
+     */
+    public int getUploadMaxConcurrency() {
+        return m_uploadMaxConcurrency;
+    }
+
+    /**
+     * @param uploadMaxConcurrency
+     *            the maximum number of blocks that are uploaded in parallel
+     */
+    public void setUploadMaxConcurrency(final int uploadMaxConcurrency) {
+        m_uploadMaxConcurrency = uploadMaxConcurrency;
+    }
+
+    /**
+     * @return the size in bytes up to which a file is uploaded with a single
+     *         request instead of being split into blocks
+     */
+    public long getUploadSingleShotThreshold() {
+        return m_uploadSingleShotThreshold;
+    }
+
+    /**
+     * @param uploadSingleShotThreshold
+     *            the size in bytes up to which a file is uploaded with a single
+     *            request instead of being split into blocks
+     */
+    public void setUploadSingleShotThreshold(final long uploadSingleShotThreshold) {
+        m_uploadSingleShotThreshold = uploadSingleShotThreshold;
+    }
+
+    /**
+     * @return whether output streams stage blocks while data is being written,
+     *         instead of spooling the whole file to a local temporary file first
+     */
+    public boolean isStreamingWrites() {
+        return m_streamingWrites;
+    }
+
+    /**
+     * @param streamingWrites
+     *            whether output streams stage blocks while data is being written,
+     *            instead of spooling the whole file to a local temporary file
+     *            first
+     */
+    public void setStreamingWrites(final boolean streamingWrites) {
+        m_streamingWrites = streamingWrites;
+    }
+
+    /**
+     * @return the maximum number of blocks a streaming upload may have in flight.
+     *         Together with the upload block size this bounds the memory used per
+     *         output stream.
+     */
+    public int getMaxInFlightUploadBlocks() {
+        return m_maxInFlightUploadBlocks;
+    }
+
+    /**
+     * @param maxInFlightUploadBlocks
+     *            the maximum number of blocks a streaming upload may have in
+     *            flight
+     */
+    public void setMaxInFlightUploadBlocks(final int maxInFlightUploadBlocks) {
+        m_maxInFlightUploadBlocks = maxInFlightUploadBlocks;
+    }
+
+    /**
+     * @return the size in bytes of the ranges that are requested when reading a
+     *         blob
+     */
+    public int getReadChunkSize() {
+        return m_readChunkSize;
+    }
+
+    /**
+     * @param readChunkSize
+     *            the size in bytes of the ranges that are requested when reading a
+     *            blob
+     */
+    public void setReadChunkSize(final int readChunkSize) {
+        m_readChunkSize = readChunkSize;
+    }
+
+    /**
+     * @return the number of ranges that are fetched ahead of the current read
+     *         position, zero disables read-ahead
+     */
+    public int getReadAheadDepth() {
+        return m_readAheadDepth;
+    }
+
+    /**
+     * @param readAheadDepth
+     *            the number of ranges that are fetched ahead of the current read
+     *            position, zero disables read-ahead
+     */
+    public void setReadAheadDepth(final int readAheadDepth) {
+        m_readAheadDepth = readAheadDepth;
+    }
+
+    /**
+     * @return the number of entries that are requested per page when listing a
+     *         directory
+     */
+    public int getListPageSize() {
+        return m_listPageSize;
+    }
+
+    /**
+     * @param listPageSize
+     *            the number of entries that are requested per page when listing a
+     *            directory
+     */
+    public void setListPageSize(final int listPageSize) {
+        m_listPageSize = listPageSize;
+    }
+
+    /**
+     * @return the number of requests that bulk operations (e.g. recursive
+     *         deletes) have in flight
+     */
+    public int getBulkOperationConcurrency() {
+        return m_bulkOperationConcurrency;
+    }
+
+    /**
+     * @param bulkOperationConcurrency
+     *            the number of requests that bulk operations (e.g. recursive
+     *            deletes) have in flight
+     */
+    public void setBulkOperationConcurrency(final int bulkOperationConcurrency) {
+        m_bulkOperationConcurrency = bulkOperationConcurrency;
+    }
+
+    /**
+     * @return whether writing a file skips removing the directory marker of the
+     *         parent directory, if the parent directory is already known to be
+     *         non-empty (e.g. because it was listed)
+     */
+    public boolean isSkipMarkerCleanupOfNonEmptyDirectories() {
+        return m_skipMarkerCleanupOfNonEmptyDirectories;
+    }
+
+    /**
+     * @param skipMarkerCleanupOfNonEmptyDirectories
+     *            whether writing a file skips removing the directory marker of the
+     *            parent directory, if the parent directory is already known to be
+     *            non-empty (e.g. because it was listed)
+     */
+    public void setSkipMarkerCleanupOfNonEmptyDirectories(final boolean skipMarkerCleanupOfNonEmptyDirectories) {
+        m_skipMarkerCleanupOfNonEmptyDirectories = skipMarkerCleanupOfNonEmptyDirectories;
+    }
+
+    /**
+     * @return the maximum number of HTTP connections to the storage account, which
+     *         is also the maximum number of concurrent requests
+     */
+    public int getMaxConnections() {
+        return m_maxConnections;
+    }
+
+    /**
+     * @param maxConnections
+     *            the maximum number of HTTP connections to the storage account
+     */
+    public void setMaxConnections(final int maxConnections) {
+        m_maxConnections = maxConnections;
+    }
+
+    /**
+     * @return the time after which idle HTTP connections are closed
+     */
+    public Duration getConnectionIdleTimeout() {
+        return m_connectionIdleTimeout;
+    }
+
+    /**
+     * @param connectionIdleTimeout
+     *            the time after which idle HTTP connections are closed
+     */
+    public void setConnectionIdleTimeout(final Duration connectionIdleTimeout) {
+        m_connectionIdleTimeout = connectionIdleTimeout;
+    }
+
+    /**
+     * @return whether read blobs are cached on the local disk and only downloaded
+     *         again if they were modified
+     */
+    public boolean isReadCacheEnabled() {
+        return m_readCacheEnabled;
+    }
+
+    /**
+     * @param readCacheEnabled
+     *            whether read blobs are cached on the local disk and only
+     *            downloaded again if they were modified
+     */
+    public void setReadCacheEnabled(final boolean readCacheEnabled) {
+        m_readCacheEnabled = readCacheEnabled;
+    }
+
+    /**
+     * @return the maximum total size in bytes of the blobs in the local read
+     *         cache
+     */
+    public long getReadCacheSize() {
+        return m_readCacheSize;
+    }
+
+    /**
+     * @param readCacheSize
+     *            the maximum total size in bytes of the blobs in the local read
+     *            cache
+     */
+    public void setReadCacheSize(final long readCacheSize) {
+        m_readCacheSize = readCacheSize;
+    }
 }
@@ -49,23 +49,38 @@
 package org.knime.ext.azure.blobstorage.filehandling.fs;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.knime.core.node.NodeLogger;
 import org.knime.credentials.base.CredentialType;
 import org.knime.ext.azure.AzureUtils;
 import org.knime.filehandling.core.connections.base.BaseFileSystem;
 
-import com.azure.core.http.HttpPipeline;
-import com.azure.core.http.HttpPipelineBuilder;
-import com.azure.core.http.policy.HttpPipelinePolicy;
-import com.azure.core.http.policy.TimeoutPolicy;
-import com.azure.storage.blob.BlobClient;
-import com.azure.storage.blob.BlobClientBuilder;
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceAsyncClient;
 import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.models.UserDelegationKey;
 
 /**
  * Azure Blob Storage implementation of the {@link FileSystem} interface.
@@ -74,18 +89,69 @@
  */
 public class AzureBlobStorageFileSystem extends BaseFileSystem<AzureBlobStoragePath> {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(AzureBlobStorageFileSystem.class);
+
     /**
      * Character to use as path separator
      */
     public static final String PATH_SEPARATOR = "/";
     private static final long FILE_SIZE_TIMEOUT_FACTOR = 10 * 1024 * 1024L;// 10Mb
 
+    private static final String GLOB_SYNTAX = "glob";
+
+    private static final String REGEX_SYNTAX = "regex";
+
+    private static final Duration USER_DELEGATION_KEY_VALIDITY = Duration.ofDays(1);
+
+    /**
+     * Cached user delegation keys are renewed when they expire within this
+     * time.
+     */
+    private static final Duration USER_DELEGATION_KEY_HEADROOM = Duration.ofMinutes(5);
+
+    private static final int MAX_LISTED_DIRECTORIES = 1000;
+
     private final BlobServiceClient m_client;
 
     private final AzureBlobStorageFSConnectionConfig m_config;
 
     private final boolean m_credentialsCanListContainers;
 
+    private final ExecutorService m_transferExecutor;
+
+    private final Map<String, BlobContainerClient> m_containerClients = new ConcurrentHashMap<>();
+
+    private final AzureBlobStorageNegativeCache m_negativeCache;
+
+    private BlobServiceAsyncClient m_asyncClient;
+
+    private UserDelegationKey m_userDelegationKey;
+
+    /**
+     * Directories that are known to have no directory marker, because it was
+     * removed (or found missing) by this file system, or because the directory
+     * is known to be non-empty.
+     */
+    private final Set<String> m_directoriesWithoutMarker = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Directories that were listed by this file system, with the time until the
+     * listing is considered recent (see {@link #isRecentlyListed}).
+     */
+    private final Map<String, Long> m_listedDirectories = new ConcurrentHashMap<>();
+
+    private final long m_cacheTTL;
+
+    /**
+     * The glob or regex path matcher that was last created by a thread, see
+     * {@link #getNameFilter(Filter)}.
+     */
+    private final ThreadLocal<AzureBlobStorageNameFilter> m_lastPathMatcher = new ThreadLocal<>();
+
+    private final AzureBlobStorageClientCache.ClientLease m_clientLease;
+
+    private final AzureBlobStorageRequestRecorder m_requestRecorder = new AzureBlobStorageRequestRecorder();
+
     /**
      * Creates a new instance.
      *
@@ -100,35 +166,41 @@ public class AzureBlobStorageFileSystem extends BaseFileSystem<AzureBlobStorageP
     public AzureBlobStorageFileSystem(final AzureBlobStorageFSConnectionConfig config, final BlobServiceClient client,
             final long cacheTTL)
             throws IOException {
-        super(new AzureBlobStorageFileSystemProvider(), //
-                cacheTTL, //
-                config.getWorkingDirectory(), //
-                AzureBlobStorageFSConnectionConfig.createFSLocationSpec(client.getAccountName()));
-
-        m_config = config;
-        m_client = client;
-        m_credentialsCanListContainers = ensureSuccessfulAuthentication();
+        this(config, AzureBlobStorageClientCache.unshared(client), cacheTTL);
     }
 
     /**
-     * Tests whether Blob storage can be accessed with the given credentials.
+     * Creates a new instance that uses the client of the given lease and
+     * releases the lease when it is closed.
      *
-     * @return true the user could list containers, false if the service did not
-     *         reject the credentials but they don't have permission to list
-     *         containers.
+     * @param config
+     *            Connection configuration
+     * @param clientLease
+     *            The lease on the client.
+     * @param cacheTTL
+     *            The time to live for cached elements in milliseconds.
      * @throws IOException
-     *             If authentication failed completely.
      */
-    private boolean ensureSuccessfulAuthentication() throws IOException {
+    AzureBlobStorageFileSystem(final AzureBlobStorageFSConnectionConfig config,
+            final AzureBlobStorageClientCache.ClientLease clientLease, final long cacheTTL) throws IOException {
+        super(new AzureBlobStorageFileSystemProvider(), //
+                cacheTTL, //
+                config.getWorkingDirectory(), //
+                AzureBlobStorageFSConnectionConfig.createFSLocationSpec(clientLease.getClient().getAccountName()));
+
+        m_config = config;
+        m_cacheTTL = cacheTTL;
+        m_clientLease = clientLease;
+        // the client passed to the public constructor may be used elsewhere as well
+        m_client = m_requestRecorder.instrument(clientLease.getClient());
+        m_negativeCache = new AzureBlobStorageNegativeCache(cacheTTL);
         try {
-            // initialize lazy iterator by calling haxNext to make list containers request
-            m_client.listBlobContainers().iterator().hasNext();// NOSONAR
-            return true;
-        } catch (BlobStorageException ex) {
-            // rethrows the given exception as IOE, if error is non-recoverable
-            AzureUtils.handleAuthException(ex);
-            return false;
+            m_credentialsCanListContainers = clientLease.canCredentialsListContainers();
+        } catch (IOException ex) {
+            clientLease.release();
+            throw ex;
         }
+        m_transferExecutor = Executors.newCachedThreadPool(new TransferThreadFactory());
     }
 
     /**
@@ -146,6 +218,131 @@ public BlobServiceClient getClient() {
         return m_client;
     }
 
+    /**
+     * @return an asynchronous client that shares the HTTP pipeline (credentials,
+     *         timeouts, proxy) with the synchronous {@link #getClient() client}.
+     */
+    public synchronized BlobServiceAsyncClient getAsyncClient() {
+        if (m_asyncClient == null) {
+            m_asyncClient = new BlobServiceClientBuilder() //
+                    .endpoint(m_client.getAccountUrl()) //
+                    .pipeline(m_client.getHttpPipeline()) //
+                    .serviceVersion(m_client.getServiceVersion()) //
+                    .buildAsyncClient();
+        }
+        return m_asyncClient;
+    }
+
+    /**
+     * Reads the attributes of many paths at once, with concurrent requests (see
+     * {@link #getBulkOperationConcurrency()}). The attributes are added to the
+     * attribute cache, so that subsequent calls such as
+     * {@link java.nio.file.Files#size(Path)} or
+     * {@link java.nio.file.Files#isDirectory(Path, java.nio.file.LinkOption...)}
+     * on these paths do not send further requests.
+     *
+     * @param paths
+     *            The paths to read the attributes of.
+     * @return the attributes by (absolute) path, in the order of the given paths.
+     *         Paths that do not exist are not contained.
+     * @throws IOException
+     *             if reading the attributes of any path failed for another reason
+     *             than the path not existing.
+     */
+    public Map<AzureBlobStoragePath, BasicFileAttributes> bulkReadAttributes(final Collection<? extends Path> paths)
+            throws IOException {
+        return AzureBlobStorageAsyncBulkOperations.readAttributes(this, paths);
+    }
+
+    /**
+     * Deletes many files and (empty) directories at once, with concurrent requests
+     * (see {@link #getBulkOperationConcurrency()}). The directory markers of the
+     * parent directories are fixed up once per parent directory, not once per
+     * deleted path.
+     *
+     * @param paths
+     *            The paths to delete.
+     * @throws IOException
+     *             if any path could not be deleted, the failures of further paths
+     *             are added as suppressed exceptions. All other paths are deleted
+     *             nevertheless.
+     */
+    public void bulkDelete(final Collection<? extends Path> paths) throws IOException {
+        AzureBlobStorageAsyncBulkOperations.delete(this, paths);
+    }
+
+    /**
+     * Finds the files below a directory whose blob index tags match the given
+     * expression, with an indexed query instead of listing the directory (see
+     * <a href="https://learn.microsoft.com/en-us/rest/api/storageservices/find-blobs-by-tags">Find
+     * Blobs by Tags</a>). Tags can be set when writing files with the
+     * {@link AzureBlobStorageTagsOption}. The index is updated asynchronously,
+     * hence recently written files may not be found yet.
+     * <p>
+     * The matching files are requested page by page while iterating, so that
+     * broad queries do not have to be held in memory. Failures of requesting
+     * further pages are rethrown (unchecked) by the iterator.
+     * </p>
+     *
+     * @param dir
+     *            The directory to search in. For the root, all containers are
+     *            searched, and the expression may restrict the container with
+     *            <code>&#64;container</code>.
+     * @param tagQuery
+     *            The tag expression, e.g. <code>"project" = 'x' AND "day" &gt;= '2024-06-01'</code>.
+     * @return an iterator over the matching files, ordered by container and blob
+     *         name.
+     * @throws IOException
+     *             if the query failed, e.g. because of an invalid expression.
+     */
+    public Iterator<AzureBlobStoragePath> findPathsByTags(final Path dir, final String tagQuery)
+            throws IOException {
+        final AzureBlobStoragePath directory = ((AzureBlobStoragePath) dir.toAbsolutePath().normalize())
+                .toDirectoryPath();
+        return AzureBlobStoragePathIteratorFactory.createTagQuery(directory, tagQuery);
+    }
+
+    /**
+     * Returns a user delegation key to sign SAS tokens with, when the connection
+     * is authenticated with a token. The key is cached and only requested again
+     * if it does not cover the requested validity or is about to expire, so that
+     * signing many URLs takes a single request.
+     *
+     * @param validUntil
+     *            The time until which the key must be valid, i.e. the expiry time
+     *            of the SAS tokens that are signed with it.
+     * @return the user delegation key
+     * @throws IOException
+     *             if the key could not be obtained, e.g. because the identity
+     *             lacks the permission to request one.
+     */
+    public synchronized UserDelegationKey getUserDelegationKey(final OffsetDateTime validUntil) throws IOException {
+        final OffsetDateTime now = OffsetDateTime.now();
+        if (m_userDelegationKey == null //
+                || m_userDelegationKey.getSignedExpiry().isBefore(validUntil) //
+                || m_userDelegationKey.getSignedExpiry().isBefore(now.plus(USER_DELEGATION_KEY_HEADROOM))) {
+            final OffsetDateTime defaultExpiry = now.plus(USER_DELEGATION_KEY_VALIDITY);
+            final OffsetDateTime expiry = validUntil.isAfter(defaultExpiry) ? validUntil : defaultExpiry;
+            try {
+                m_userDelegationKey = m_client.getUserDelegationKey(now, expiry);
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, "");
+            }
+        }
+        return m_userDelegationKey;
+    }
+
+    /**
+     * Returns the metrics of the requests that were sent by this file system
+     * since it was created, grouped by type of operation. Requests of other
+     * connections that share the HTTP client are not included.
+     *
+     * @return the request metrics
+     */
+    public AzureBlobStorageRequestMetrics getRequestMetrics() {
+        return m_requestRecorder.snapshot();
+    }
+
     /**
      * @return account name used by client
      */
@@ -163,7 +360,192 @@ public CredentialType getCredentialType() {
 
     @Override
     protected void prepareClose() throws IOException {
-        // nothing to close
+        final AzureBlobStorageRequestMetrics requestMetrics = getRequestMetrics();
+        if (requestMetrics.getTotalRequestCount() > 0) {
+            LOGGER.debug(String.format("Requests sent to storage account %s:%n%s", getAccountName(),
+                    requestMetrics));
+        }
+        m_transferExecutor.shutdownNow();
+        m_negativeCache.clear();
+        m_directoriesWithoutMarker.clear();
+        m_listedDirectories.clear();
+        synchronized (this) {
+            m_userDelegationKey = null;
+        }
+        m_clientLease.release();
+    }
+
+    /**
+     * @return the executor to run background transfers (e.g. block uploads) on.
+     *         Callers are responsible for bounding the number of tasks they
+     *         submit.
+     */
+    ExecutorService getTransferExecutor() {
+        return m_transferExecutor;
+    }
+
+    /**
+     * @return whether output streams stage blocks while data is being written,
+     *         instead of spooling the whole file to a local temporary file first
+     */
+    public boolean isStreamingWrites() {
+        return m_config.isStreamingWrites();
+    }
+
+    /**
+     * @return the maximum number of blocks a streaming upload may have in flight
+     */
+    public int getMaxInFlightUploadBlocks() {
+        return m_config.getMaxInFlightUploadBlocks();
+    }
+
+    /**
+     * @return the size in bytes of the ranges that are requested when reading a
+     *         blob
+     */
+    public int getReadChunkSize() {
+        return m_config.getReadChunkSize();
+    }
+
+    /**
+     * @return the number of ranges that are fetched ahead of the current read
+     *         position
+     */
+    public int getReadAheadDepth() {
+        return m_config.getReadAheadDepth();
+    }
+
+    /**
+     * @return whether read blobs are cached on the local disk and only downloaded
+     *         again if they were modified
+     */
+    public boolean isReadCacheEnabled() {
+        return m_config.isReadCacheEnabled();
+    }
+
+    /**
+     * @return the maximum total size in bytes of the blobs in the local read
+     *         cache
+     */
+    public long getReadCacheSize() {
+        return m_config.getReadCacheSize();
+    }
+
+    /**
+     * @return the number of entries that are requested per page when listing a
+     *         directory
+     */
+    public int getListPageSize() {
+        return m_config.getListPageSize();
+    }
+
+    /**
+     * @return the number of requests that bulk operations (e.g. recursive
+     *         deletes) have in flight
+     */
+    public int getBulkOperationConcurrency() {
+        return m_config.getBulkOperationConcurrency();
+    }
+
+    /**
+     * @return the cache of paths that were found not to exist
+     */
+    AzureBlobStorageNegativeCache getNegativeCache() {
+        return m_negativeCache;
+    }
+
+    /**
+     * @return the number of existence checks that were answered from the cache of
+     *         missing paths, without sending a request
+     */
+    public long getNegativeCacheHitCount() {
+        return m_negativeCache.getHitCount();
+    }
+
+    /**
+     * @return the number of existence checks that could not be answered from the
+     *         cache of missing paths
+     */
+    public long getNegativeCacheMissCount() {
+        return m_negativeCache.getMissCount();
+    }
+
+    /**
+     * @param dir
+     *            A directory that content was written to.
+     * @return whether the directory marker of the given directory may still
+     *         exist, i.e. whether it needs to be removed.
+     */
+    boolean needsDirectoryMarkerCleanup(final AzureBlobStoragePath dir) {
+        return !m_directoriesWithoutMarker.contains(toDirectoryKey(dir));
+    }
+
+    /**
+     * Records that the directory marker of the given directory was removed (or did
+     * not exist).
+     *
+     * @param dir
+     *            The directory.
+     */
+    void directoryMarkerRemoved(final AzureBlobStoragePath dir) {
+        m_directoriesWithoutMarker.add(toDirectoryKey(dir));
+    }
+
+    /**
+     * Records that a directory marker was created for the given directory.
+     *
+     * @param dir
+     *            The directory.
+     */
+    void directoryMarkerCreated(final AzureBlobStoragePath dir) {
+        m_directoriesWithoutMarker.remove(toDirectoryKey(dir));
+    }
+
+    /**
+     * Records that the given directory was found to be non-empty. This only
+     * affects marker cleanup if
+     * {@link AzureBlobStorageFSConnectionConfig#isSkipMarkerCleanupOfNonEmptyDirectories()}
+     * is set.
+     *
+     * @param dir
+     *            The directory.
+     */
+    void directoryFoundNonEmpty(final AzureBlobStoragePath dir) {
+        if (m_config.isSkipMarkerCleanupOfNonEmptyDirectories()) {
+            m_directoriesWithoutMarker.add(toDirectoryKey(dir));
+        }
+    }
+
+    /**
+     * Records that the given directory was listed. The paths returned by the
+     * listing are likely to be accessed next.
+     *
+     * @param dir
+     *            The directory.
+     */
+    void directoryListed(final AzureBlobStoragePath dir) {
+        if (m_cacheTTL <= 0) {
+            return;
+        }
+        if (m_listedDirectories.size() >= MAX_LISTED_DIRECTORIES) {
+            m_listedDirectories.clear();
+        }
+        m_listedDirectories.put(toDirectoryKey(dir), System.currentTimeMillis() + m_cacheTTL);
+    }
+
+    /**
+     * @param dir
+     *            The directory.
+     * @return whether the given directory was listed within the time to live of
+     *         the attribute cache.
+     */
+    boolean isRecentlyListed(final AzureBlobStoragePath dir) {
+        final Long expiryTime = m_listedDirectories.get(toDirectoryKey(dir));
+        return expiryTime != null && expiryTime > System.currentTimeMillis();
+    }
+
+    private static String toDirectoryKey(final AzureBlobStoragePath dir) {
+        return ((AzureBlobStoragePath) dir.toAbsolutePath()).toDirectoryPath().toString();
     }
 
     @Override
@@ -181,6 +563,51 @@ public Iterable<Path> getRootDirectories() {
         return Collections.singletonList(getPath(PATH_SEPARATOR));
     }
 
+    /**
+     * Returns an {@link AzureBlobStorageNameFilter} for the glob and regex
+     * syntaxes, whose literal prefix can be pushed down into listings. Blob
+     * names are case-sensitive, hence so are the patterns.
+     */
+    @Override
+    public PathMatcher getPathMatcher(final String syntaxAndPattern) {
+        final int colon = syntaxAndPattern.indexOf(':');
+        final String syntax = colon < 0 ? "" : syntaxAndPattern.substring(0, colon);
+        final AzureBlobStorageNameFilter matcher;
+        if (GLOB_SYNTAX.equalsIgnoreCase(syntax)) {
+            matcher = AzureBlobStorageNameFilter.glob(syntaxAndPattern.substring(colon + 1));
+        } else if (REGEX_SYNTAX.equalsIgnoreCase(syntax)) {
+            matcher = AzureBlobStorageNameFilter.regex(syntaxAndPattern.substring(colon + 1));
+        } else {
+            return super.getPathMatcher(syntaxAndPattern);
+        }
+        m_lastPathMatcher.set(matcher);
+        return matcher;
+    }
+
+    /**
+     * Returns the name filter a directory listing can push down its prefix for.
+     * Besides {@link AzureBlobStorageNameFilter} instances, this is the case for
+     * the filter of {@link java.nio.file.Files#newDirectoryStream(Path, String)},
+     * an anonymous class that wraps the path matcher it has just created for the
+     * glob on the same thread.
+     *
+     * @param filter
+     *            The filter of the listing.
+     * @return the name filter, or null if the filter is opaque.
+     */
+    AzureBlobStorageNameFilter getNameFilter(final Filter<? super Path> filter) {
+        if (filter instanceof AzureBlobStorageNameFilter nameFilter) {
+            return nameFilter;
+        }
+        if (filter != null && filter.getClass().isAnonymousClass()
+                && filter.getClass().getEnclosingClass() == Files.class) {
+            final AzureBlobStorageNameFilter matcher = m_lastPathMatcher.get();
+            m_lastPathMatcher.remove();
+            return matcher;
+        }
+        return null;
+    }
+
     /**
      * @return whether to normalize paths
      */
@@ -189,46 +616,55 @@ public boolean normalizePaths() {
     }
 
     /**
-     * Returns {@link BlobClient} instance where {@link TimeoutPolicy} is replaced
-     * with a new one with a larger timeout value. New timeout value is calculated
-     * as standard timeout (from the node settings) multiplied by the value derived
-     * from the file size.
+     * @return the {@link ParallelTransferOptions} to use when uploading files,
+     *         i.e. the block size, the number of blocks to upload in parallel and
+     *         the size up to which a file is uploaded with a single request.
+     */
+    public ParallelTransferOptions getUploadTransferOptions() {
+        return new ParallelTransferOptions() //
+                .setBlockSizeLong(m_config.getUploadBlockSize()) //
+                .setMaxConcurrency(m_config.getUploadMaxConcurrency()) //
+                .setMaxSingleUploadSizeLong(m_config.getUploadSingleShotThreshold());
+    }
+
+    /**
+     * Returns the client of the given container. Container clients share the HTTP
+     * pipeline of the service client and are cached, so that opening many streams
+     * does not create new clients over and over again.
      *
      * @param container
      *            The container name.
-     * @param blob
-     *            The blob name.
-     * @param fileSize
-     *            The file size in bytes.
-     * @return The {@link BlobClient} instance.
+     * @return The {@link BlobContainerClient} instance.
      */
-    public BlobClient getBlobClientwithIncreasedTimeout(final String container, final String blob,
-            final long fileSize) {
+    public BlobContainerClient getContainerClient(final String container) {
+        return m_containerClients.computeIfAbsent(container, m_client::getBlobContainerClient);
+    }
 
+    /**
+     * Returns a {@link Context} that makes requests transferring the given number
+     * of bytes use a timeout that is larger than the standard one. The new
+     * timeout value is calculated as standard timeout (from the node settings)
+     * multiplied by the value derived from the number of bytes.
+     *
+     * @param transferSize
+     *            The number of bytes to transfer.
+     * @return The {@link Context} to pass to the client method.
+     */
+    public Context getTransferContext(final long transferSize) {
         final long timeout = m_config.getTimeout().toSeconds();
-        long newTimeout = Math.max(timeout, timeout * fileSize / FILE_SIZE_TIMEOUT_FACTOR);
-
-        HttpPipeline pipeline = m_client.getHttpPipeline();
-        HttpPipelinePolicy[] policies = new HttpPipelinePolicy[pipeline.getPolicyCount()];
+        final long newTimeout = Math.max(timeout, timeout * transferSize / FILE_SIZE_TIMEOUT_FACTOR);
+        return AzureBlobStorageTimeoutPolicy.withTimeout(Duration.ofSeconds(newTimeout));
+    }
 
-        for (int i = 0; i < pipeline.getPolicyCount(); i++) {
-            HttpPipelinePolicy policy = pipeline.getPolicy(i);
+    private static final class TransferThreadFactory implements ThreadFactory {
 
-            if (policy instanceof TimeoutPolicy) {
-                policy = new TimeoutPolicy(Duration.ofSeconds(newTimeout));
-            }
+        private final AtomicInteger m_threadCount = new AtomicInteger();
 
-            policies[i] = policy;
+        @Override
+        public Thread newThread(final Runnable r) {
+            final Thread thread = new Thread(r, "azure-blob-storage-transfer-" + m_threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
-
-        HttpPipeline newPipeline = new HttpPipelineBuilder().policies(policies).httpClient(pipeline.getHttpClient())
-                .build();
-
-        return new BlobClientBuilder() //
-                .endpoint(m_client.getAccountUrl()) //
-                .containerName(container) //
-                .blobName(blob) //
-                .pipeline(newPipeline) //
-                .buildClient();
     }
 }
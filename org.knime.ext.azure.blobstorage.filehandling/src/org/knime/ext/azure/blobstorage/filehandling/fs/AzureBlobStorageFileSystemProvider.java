@@ -58,32 +58,43 @@
 import java.nio.file.CopyOption;
 import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.DirectoryStream.Filter;
-import java.nio.file.Files;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.LongConsumer;
 import java.util.regex.Pattern;
 
 import org.knime.ext.azure.AzureUtils;
 import org.knime.filehandling.core.connections.base.BaseFileSystemProvider;
 import org.knime.filehandling.core.connections.base.attributes.BaseFileAttributes;
 
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.util.Context;
 import com.azure.core.util.polling.SyncPoller;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
-import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.models.BlobCopyInfo;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.BlobType;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.options.BlockBlobCommitBlockListOptions;
+import com.azure.storage.blob.specialized.BlockBlobClient;
 
 /**
  * File system provider for the {@link AzureBlobStorageFileSystem}.
@@ -96,6 +107,10 @@
     private static final Pattern VALID_CONTAINER_NAME_PATTERN = Pattern.compile("^(\\w|\\w-\\w)*$");
     private static final int HTTP_NOT_FOUND = 404;
     private static final int HTTP_FORBIDDEN = 403;
+    private static final int PROBE_PAGE_SIZE = 3;
+
+    private static final Set<OpenOption> DEFAULT_OUTPUT_STREAM_OPTIONS = Set.of(StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
 
 
     @Override
@@ -107,9 +122,95 @@ protected SeekableByteChannel newByteChannelInternal(final AzureBlobStoragePath
             throw new IOException("Cannot read/write files below the root. Only folders can be there.");
         }
 
+        if (!options.contains(StandardOpenOption.WRITE) && !options.contains(StandardOpenOption.APPEND)) {
+            // read-only access is served with range requests, without a temporary file
+            return new AzureBlobStorageReadOnlyByteChannel(path);
+        }
+
+        if (options.contains(StandardOpenOption.APPEND)) {
+            final SeekableByteChannel appendChannel = newAppendByteChannel(path, options);
+            if (appendChannel != null) {
+                return appendChannel;
+            }
+        }
+
         return new AzureBlobStorageSeekableByteChannel(path, options);
     }
 
+    /**
+     * Creates an {@link AzureBlobStorageAppendByteChannel} that appends to the
+     * given blob in place. Append blobs are appended to directly, block blobs by
+     * committing new blocks after the existing ones (see
+     * {@link AzureBlobStorageDeltaUpload#newAppendChannel(Map)}). A blob that does
+     * not exist yet is created as an empty block blob, so that the blob type does
+     * not depend on how the file was opened. The tags of an
+     * {@link AzureBlobStorageTagsOption} are set on the blob right away.
+     *
+     * @return the channel, or null if the blob is neither an append blob nor a
+     *         block blob whose blocks can be appended to, in which case it has to
+     *         be downloaded and uploaded again.
+     */
+    @SuppressWarnings("resource")
+    private SeekableByteChannel newAppendByteChannel(final AzureBlobStoragePath path,
+            final Set<? extends OpenOption> options) throws IOException {
+        final AzureBlobStorageFileSystem fs = getFileSystemInternal();
+        final BlobClient client = fs.getContainerClient(path.getBucketName()) //
+                .getBlobClient(path.getBlobName());
+        final Map<String, String> tags = AzureBlobStorageTagsOption.getTags(options);
+
+        if (existsCached(path)) {
+            if (options.contains(StandardOpenOption.CREATE_NEW)) {
+                throw new FileAlreadyExistsException(path.toString());
+            }
+            if (isDirectory(path)) {
+                throw new IOException(path.toString() + " is a directory");
+            }
+
+            try {
+                final BlobProperties properties = client.getProperties();
+                if (properties.getBlobType() == BlobType.BLOCK_BLOB) {
+                    final AzureBlobStorageDeltaUpload blocks = AzureBlobStorageDeltaUpload.create(path);
+                    return blocks != null ? blocks.newAppendChannel(tags) : null;
+                }
+                if (properties.getBlobType() != BlobType.APPEND_BLOB) {
+                    return null;
+                }
+                if (tags != null) {
+                    client.setTags(tags);
+                }
+                return AzureBlobStorageAppendByteChannel.forAppendBlob(path, client.getAppendBlobClient(),
+                        properties.getBlobSize());
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, path.toString());
+            }
+        }
+
+        if (!options.contains(StandardOpenOption.CREATE) && !options.contains(StandardOpenOption.CREATE_NEW)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        final AzureBlobStoragePath parent = (AzureBlobStoragePath) path.getParent();
+        if (parent != null && !existsCached(parent)) {
+            throw new NoSuchFileException(parent.toString());
+        }
+
+        final BlockBlobClient blockClient = client.getBlockBlobClient();
+        final String eTag;
+        try {
+            eTag = blockClient.commitBlockListWithResponse(new BlockBlobCommitBlockListOptions(List.of()) //
+                    .setTags(tags) //
+                    .setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*")), //
+                    null, Context.NONE).getValue().getETag();
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, path.toString());
+        } finally {
+            fs.getNegativeCache().invalidate(path);
+        }
+        if (parent != null) {
+            removeDirectoryMarker(parent);
+        }
+        return AzureBlobStorageDeltaUpload.newAppendChannel(path, blockClient, eTag);
+    }
+
     private boolean isDirectory(final AzureBlobStoragePath path) throws IOException {
         return readAttributes(path, BasicFileAttributes.class).isDirectory();
     }
@@ -118,7 +219,13 @@ private boolean isDirectory(final AzureBlobStoragePath path) throws IOException
     @Override
     protected void copyInternal(final AzureBlobStoragePath source, final AzureBlobStoragePath target, final CopyOption... options)
             throws IOException {
-        if (isDirectory(source)) {
+        // also before the copy, so that the checks of the target do not see a stale entry
+        target.getFileSystem().getNegativeCache().invalidate(target);
+        final AzureBlobStorageTreeCopyOption treeCopyOption = AzureBlobStorageTreeCopyOption.get(options);
+        if (treeCopyOption != null && source.getBlobName() != null && target.getBlobName() != null
+                && isDirectory(source)) {
+            copyTree(source, target, treeCopyOption.getProgress());
+        } else if (isDirectory(source)) {
             if (isNonEmptyDirectory(target)) {
                 throw new DirectoryNotEmptyException(
                         String.format("Target directory %s exists and is not empty", target.toString()));
@@ -130,12 +237,10 @@ protected void copyInternal(final AzureBlobStoragePath source, final AzureBlobSt
         } else {
             try {
                 final AzureBlobStorageFileSystem fs = getFileSystemInternal();
-                final BlobServiceClient client = fs.getClient();
-
-                final BlobClient sourceBlobClient = client.getBlobContainerClient(source.getBucketName())
+                final BlobClient sourceBlobClient = fs.getContainerClient(source.getBucketName())
                         .getBlobClient(source.getBlobName());
 
-                final BlobClient targetBlobClient = client.getBlobContainerClient(target.getBucketName())
+                final BlobClient targetBlobClient = fs.getContainerClient(target.getBucketName())
                         .getBlobClient(target.getBlobName());
 
                 final SyncPoller<BlobCopyInfo, Void> poller;
@@ -152,6 +257,8 @@ protected void copyInternal(final AzureBlobStoragePath source, final AzureBlobSt
                 poller.waitForCompletion();
             } catch (BlobStorageException ex) {
                 throw AzureUtils.toIOE(ex, source.toString(), target.toString());
+            } finally {
+                target.getFileSystem().getNegativeCache().invalidate(target);
             }
         }
     }
@@ -159,13 +266,15 @@ protected void copyInternal(final AzureBlobStoragePath source, final AzureBlobSt
     @SuppressWarnings("resource")
     @Override
     protected InputStream newInputStreamInternal(final AzureBlobStoragePath path, final OpenOption... options) throws IOException {
-        try {
-            return path.getFileSystem()
-                    .getBlobClientwithIncreasedTimeout(path.getBucketName(), path.getBlobName(), Files.size(path))
-                    .openInputStream();
-        } catch (BlobStorageException ex) {
-            throw AzureUtils.toIOE(ex, path.toString());
+        final AzureBlobStorageFileSystem fs = getFileSystemInternal();
+        if (fs.isReadCacheEnabled()) {
+            final InputStream cached = AzureBlobStorageReadCache.getInstance().newInputStream(path,
+                    fs.getReadCacheSize());
+            if (cached != null) {
+                return cached;
+            }
         }
+        return new AzureBlobStorageInputStream(path);
     }
 
     @SuppressWarnings("resource")
@@ -174,15 +283,92 @@ protected OutputStream newOutputStreamInternal(final AzureBlobStoragePath path,
             throws IOException {
 
         final Set<OpenOption> opts = new HashSet<>(Arrays.asList(options));
+        if (opts.stream().noneMatch(StandardOpenOption.class::isInstance)) {
+            // only options like the tags, hence the defaults of Files.newOutputStream apply
+            opts.addAll(DEFAULT_OUTPUT_STREAM_OPTIONS);
+        }
+
+        if (getFileSystemInternal().isStreamingWrites() && !opts.contains(StandardOpenOption.APPEND)) {
+            final OutputStream stream = newStreamingOutputStream(path, opts);
+            if (stream != null) {
+                return stream;
+            }
+        }
         return Channels.newOutputStream(newByteChannel(path, opts));
     }
 
+    /**
+     * Creates an {@link AzureBlobStorageOutputStream} that stages blocks while data
+     * is written, if the given options allow to replace the blob as a whole.
+     *
+     * @return the stream, or null if the existing content of the blob needs to be
+     *         preserved.
+     */
+    private OutputStream newStreamingOutputStream(final AzureBlobStoragePath path, final Set<OpenOption> opts)
+            throws IOException {
+
+        if (path.getParent() != null && ((AzureBlobStoragePath) path.getParent()).isRoot()) {
+            throw new IOException("Cannot read/write files below the root. Only folders can be there.");
+        }
+
+        final boolean exists = existsCached(path);
+        if (exists && opts.contains(StandardOpenOption.CREATE_NEW)) {
+            throw new FileAlreadyExistsException(path.toString());
+        }
+
+        if (!exists) {
+            if (!opts.contains(StandardOpenOption.CREATE) && !opts.contains(StandardOpenOption.CREATE_NEW)) {
+                throw new NoSuchFileException(path.toString());
+            }
+            final AzureBlobStoragePath parent = (AzureBlobStoragePath) path.getParent();
+            if (parent != null && !existsCached(parent)) {
+                throw new NoSuchFileException(parent.toString());
+            }
+        } else if (isDirectory(path)) {
+            throw new IOException(path.toString() + " is a directory");
+        } else if (!opts.contains(StandardOpenOption.TRUNCATE_EXISTING)) {
+            // existing content must be preserved, which requires the temp file channel
+            return null;
+        }
+
+        return new AzureBlobStorageOutputStream(path, AzureBlobStorageTagsOption.getTags(opts));
+    }
+
     @Override
     protected Iterator<AzureBlobStoragePath> createPathIterator(final AzureBlobStoragePath dir, final Filter<? super Path> filter)
             throws IOException {
         return AzureBlobStoragePathIteratorFactory.create(dir, filter);
     }
 
+    /**
+     * Lists all files and directories below the given directory, recursively.
+     * Unlike walking the tree with one directory listing per directory, this uses
+     * a single flat (paged) listing of all blobs with the directory's prefix and
+     * synthesizes the directory entries from the blob names. Attributes of all
+     * returned paths are added to the attribute cache.
+     *
+     * @param dir
+     *            The directory to list, must be a container or a directory within a
+     *            container.
+     * @param filter
+     *            The filter to apply to the returned paths.
+     * @return an iterator over all files and directories below the given
+     *         directory. Directories are returned before their contents.
+     * @throws IOException
+     *             if the directory does not exist or could not be listed.
+     */
+    public Iterator<AzureBlobStoragePath> listRecursively(final AzureBlobStoragePath dir,
+            final Filter<? super Path> filter) throws IOException {
+        final AzureBlobStoragePath absoluteDir = (AzureBlobStoragePath) dir.toAbsolutePath().normalize();
+        if (absoluteDir.isRoot()) {
+            throw new IOException("Recursive listing is only supported within a container");
+        }
+        if (!isDirectory(absoluteDir)) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        return AzureBlobStoragePathIteratorFactory.createRecursive(absoluteDir, filter);
+    }
+
     private static void validateContainerName(final String container) throws IOException {
         if (!VALID_CONTAINER_NAME_PATTERN.matcher(container).matches()) {
             throw new IOException(String.format(
@@ -208,7 +394,6 @@ private static boolean isContainerNameValid(final String container) {
     @SuppressWarnings("resource")
     @Override
     protected void createDirectoryInternal(final AzureBlobStoragePath dir, final FileAttribute<?>... attrs) throws IOException {
-
         if (dir.getBucketName() != null && dir.getBlobName() == null) {
             // before creating a BS container we should validate the name (to prevent funny
             // exceptions in the BlobContainerClient)
@@ -216,18 +401,21 @@ protected void createDirectoryInternal(final AzureBlobStoragePath dir, final Fil
         }
 
         final AzureBlobStorageFileSystem fs = dir.getFileSystem();
-        final BlobContainerClient contClient = fs.getClient().getBlobContainerClient(dir.getBucketName());
+        final BlobContainerClient contClient = fs.getContainerClient(dir.getBucketName());
 
         try {
             if (dir.getBlobName() != null) {
                 contClient.getBlobClient(dir.getDirectoryMarkerFile().getBlobName())
                         .upload(new ByteArrayInputStream(new byte[0]), 0, true);
+                fs.directoryMarkerCreated(dir);
                 removeDirectoryMarker((AzureBlobStoragePath) dir.getParent());
             } else {
                 contClient.create();
             }
         } catch (BlobStorageException ex) {
             throw AzureUtils.toIOE(ex, dir.toString());
+        } finally {
+            fs.getNegativeCache().invalidate(dir);
         }
     }
 
@@ -260,6 +448,100 @@ protected BaseFileAttributes fetchAttributesInternal(final AzureBlobStoragePath
 
     @SuppressWarnings("resource")
     private static BaseFileAttributes createBlobAttributes(final AzureBlobStoragePath path) throws NoSuchFileException {
+        final AzureBlobStorageNegativeCache negativeCache = path.getFileSystem().getNegativeCache();
+        if (negativeCache.isKnownMissing(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+
+        try {
+            if (!path.isDirectory() && path.getFileSystem().isRecentlyListed((AzureBlobStoragePath) path.getParent())) {
+                // most likely a file returned by the listing of its parent, which is found
+                // with a single request that is cheaper than a listing
+                final BlobProperties properties = fetchBlobProperties(path);
+                if (properties != null) {
+                    return createAttrsFromProperties(properties, path, false);
+                }
+            }
+            return probeBlobAttributes(path);
+        } catch (NoSuchFileException ex) {
+            negativeCache.addMissing(path);
+            throw ex;
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() != HTTP_FORBIDDEN) {
+                throw ex;
+            }
+            // credentials that may not list (e.g. a SAS for a single blob), fall back to
+            // probing the possible blob names one after another
+            return fetchBlobAttributesSequentially(path);
+        }
+    }
+
+    /**
+     * Determines the attributes of a blob path with a single listing request.
+     * Listing with the name of the path as prefix and '/' as delimiter returns the
+     * blob 'foo' itself if it exists, and the prefix 'foo/' if any blob (including
+     * directory markers) exists below it. Siblings like 'foo-1' or 'foo.bak' are
+     * listed in between, hence only a small first page is requested, and if it
+     * neither reaches 'foo/' nor ends the listing, the possible blob names are
+     * probed one after another instead of paging through all siblings.
+     */
+    @SuppressWarnings("resource")
+    private static BaseFileAttributes probeBlobAttributes(final AzureBlobStoragePath path)
+            throws NoSuchFileException {
+        final AzureBlobStorageFileSystem fs = path.getFileSystem();
+        final String separator = fs.getSeparator();
+
+        String name = path.getBlobName();
+        if (name.endsWith(separator)) {
+            name = name.substring(0, name.length() - 1);
+        }
+        final String dirName = name + separator;
+
+        final ListBlobsOptions opts = new ListBlobsOptions() //
+                .setPrefix(name) //
+                .setMaxResultsPerPage(PROBE_PAGE_SIZE);
+
+        final PagedResponse<BlobItem> page = fs.getContainerClient(path.getBucketName()) //
+                .listBlobsByHierarchy(separator, opts, null) //
+                .iterableByPage() //
+                .iterator() //
+                .next();
+
+        BlobItem exactMatch = null;
+        boolean isPrefix = false;
+        // whether the page is conclusive, i.e. the listing ends on it or reaches 'foo/'
+        boolean passedDirName = page.getContinuationToken() == null;
+        for (final BlobItem item : page.getValue()) {
+            final int cmp = item.getName().compareTo(dirName);
+            if (cmp > 0) {
+                // listings are sorted by name, neither 'foo' nor 'foo/' can follow
+                passedDirName = true;
+                break;
+            } else if (cmp == 0) {
+                isPrefix = true;
+                passedDirName = true;
+                break;
+            } else if (item.getName().equals(name) && !Boolean.TRUE.equals(item.isPrefix())) {
+                exactMatch = item;
+            }
+        }
+
+        if (exactMatch != null && !path.isDirectory()) {
+            // the blob 'foo' takes precedence over the prefix 'foo/'
+            return AzureBlobStoragePathIteratorFactory.createFileAttributes(path, exactMatch.getProperties());
+        } else if (!passedDirName) {
+            // too many siblings between 'foo' and 'foo/'
+            return fetchBlobAttributesSequentially(path);
+        } else if (isPrefix) {
+            return AzureBlobStoragePathIteratorFactory.createDirectoryAttributes(path);
+        } else {
+            throw new NoSuchFileException(path.toString());
+        }
+    }
+
+    @SuppressWarnings("resource")
+    private static BaseFileAttributes fetchBlobAttributesSequentially(final AzureBlobStoragePath path)
+            throws NoSuchFileException {
         final AzureBlobStorageFileSystem fs = path.getFileSystem();
 
         // 1. Check for exact match: 'foo/bar'
@@ -282,7 +564,7 @@ private static BaseFileAttributes createBlobAttributes(final AzureBlobStoragePat
         }
 
         // 4. Check if the path exists as a prefix
-        BlobContainerClient contClient = fs.getClient().getBlobContainerClient(path.getBucketName());
+        BlobContainerClient contClient = fs.getContainerClient(path.getBucketName());
         ListBlobsOptions opts = new ListBlobsOptions().setPrefix(path.toDirectoryPath().getBlobName())
                 .setMaxResultsPerPage(1);
         boolean exists = contClient.listBlobsByHierarchy(fs.getSeparator(), opts, null).iterator().hasNext();
@@ -306,7 +588,7 @@ private static BaseFileAttributes createBlobAttributes(final AzureBlobStoragePat
     @SuppressWarnings("resource")
     private static BlobProperties fetchBlobProperties(final AzureBlobStoragePath path) {
         try {
-            return path.getFileSystem().getClient().getBlobContainerClient(path.getBucketName())
+            return path.getFileSystem().getContainerClient(path.getBucketName())
                     .getBlobClient(path.getBlobName()).getProperties();
         } catch (BlobStorageException ex) {
             if (ex.getStatusCode() == HTTP_NOT_FOUND) {
@@ -317,7 +599,7 @@ private static BlobProperties fetchBlobProperties(final AzureBlobStoragePath pat
         }
     }
 
-    private static BaseFileAttributes createAttrsFromProperties(final BlobProperties properties,
+    static BaseFileAttributes createAttrsFromProperties(final BlobProperties properties,
             final AzureBlobStoragePath path, final boolean isDirectory) {
         FileTime createdAt = FileTime.from(properties.getCreationTime().toInstant());
         FileTime modifiedAt = FileTime.from(properties.getLastModified().toInstant());
@@ -338,7 +620,7 @@ private static BaseFileAttributes createAttrsFromProperties(final BlobProperties
     private static BaseFileAttributes createContainerAttributes(final AzureBlobStoragePath path)
             throws NoSuchFileException {
         final AzureBlobStorageFileSystem fs = path.getFileSystem();
-        var containerClient = fs.getClient().getBlobContainerClient(path.getBucketName());
+        var containerClient = fs.getContainerClient(path.getBucketName());
         var creationAndModificationTime = FileTime.fromMillis(0);
 
         try {
@@ -388,7 +670,7 @@ protected void checkAccessInternal(final AzureBlobStoragePath path, final Access
     @Override
     protected void deleteInternal(final AzureBlobStoragePath path) throws IOException {
         AzureBlobStorageFileSystem fs = path.getFileSystem();
-        BlobContainerClient contClient = fs.getClient().getBlobContainerClient(path.getBucketName());
+        BlobContainerClient contClient = fs.getContainerClient(path.getBucketName());
 
         try {
             if (path.getBlobName() != null) {
@@ -396,13 +678,10 @@ protected void deleteInternal(final AzureBlobStoragePath path) throws IOExceptio
                 if (!attr.isDirectory()) {
                     contClient.getBlobClient(path.getBlobName()).delete();
                 } else {
-                    removeDirectoryMarker(path);
+                    deleteDirectoryMarker(path);
                 }
 
-                AzureBlobStoragePath parent = (AzureBlobStoragePath) path.getParent();
-                if(!exists(parent)) {
-                    createDirectoryInternal(parent);
-                }
+                restoreDirectoryIfMissing((AzureBlobStoragePath) path.getParent());
 
             } else {
                 contClient.delete();
@@ -413,13 +692,204 @@ protected void deleteInternal(final AzureBlobStoragePath path) throws IOExceptio
     }
 
     /**
-     * Removes directory marker object corresponding to the given directory.
+     * Copies the given directory including all of its contents to the target
+     * directory. The blobs are found with a single flat listing and copied
+     * server-side, with many copies in flight at once (see
+     * {@link AzureBlobStorageFileSystem#getBulkOperationConcurrency()}). Block
+     * blobs below 256 MB are copied synchronously, all other blobs are copied
+     * asynchronously and polled until completion.
+     *
+     * @param source
+     *            The directory to copy.
+     * @param target
+     *            The directory to copy to. Must not exist or be empty.
+     * @param progress
+     *            Receives the number of blobs copied so far, after each blob. It
+     *            is called from the threads running the copies, may be null.
+     * @return the number of copied blobs.
+     * @throws IOException
+     *             if the source is not a directory, the target is not empty, or
+     *             any blob could not be copied.
+     * @see AzureBlobStorageTreeCopyOption
+     */
+    public long copyTree(final AzureBlobStoragePath source, final AzureBlobStoragePath target,
+            final LongConsumer progress) throws IOException {
+        final AzureBlobStoragePath absoluteSource = (AzureBlobStoragePath) source.toAbsolutePath().normalize();
+        final AzureBlobStoragePath absoluteTarget = (AzureBlobStoragePath) target.toAbsolutePath().normalize();
+        checkTreeOperation(absoluteSource, absoluteTarget);
+
+        if (isNonEmptyDirectory(absoluteTarget)) {
+            throw new DirectoryNotEmptyException(
+                    String.format("Target directory %s exists and is not empty", target.toString()));
+        }
+
+        return copyTreeInternal(absoluteSource, absoluteTarget, false, progress);
+    }
+
+    /**
+     * Moves the given directory including all of its contents to the target
+     * directory. All blobs are copied server-side (see
+     * {@link #copyTree(AzureBlobStoragePath, AzureBlobStoragePath, LongConsumer)}),
+     * and the source is deleted concurrently once all copies have succeeded (see
+     * {@link #deleteRecursively(AzureBlobStoragePath)}).
+     * <p>
+     * The move can be resumed after it was interrupted, by calling this method
+     * again with the same arguments: target blobs that are completed copies of
+     * the current content of their source are not copied again. If the target
+     * contains a blob that was not copied from its source, the move fails before
+     * anything is deleted, instead of overwriting the blob or deleting a source
+     * whose content was never copied.
+     * </p>
+     *
+     * @param source
+     *            The directory to move.
+     * @param target
+     *            The directory to move to. May already contain the blobs of an
+     *            interrupted move.
+     * @param progress
+     *            Receives the number of blobs copied (or skipped) so far, after
+     *            each blob. It is called from the threads running the copies, may
+     *            be null.
+     * @return the number of moved blobs.
+     * @throws IOException
+     *             if the source is not a directory, or any blob could not be
+     *             copied or deleted.
+     * @throws FileAlreadyExistsException
+     *             if a target blob exists that was not copied from its source.
+     *             Nothing of the source is deleted in this case.
+     */
+    public long moveTree(final AzureBlobStoragePath source, final AzureBlobStoragePath target,
+            final LongConsumer progress) throws IOException {
+        final AzureBlobStoragePath absoluteSource = (AzureBlobStoragePath) source.toAbsolutePath().normalize();
+        final AzureBlobStoragePath absoluteTarget = (AzureBlobStoragePath) target.toAbsolutePath().normalize();
+        checkTreeOperation(absoluteSource, absoluteTarget);
+
+        // fails if any target blob is not a copy of its source, before anything is deleted
+        final long moved = copyTreeInternal(absoluteSource, absoluteTarget, true, progress);
+        deleteRecursively(absoluteSource);
+        return moved;
+    }
+
+    @Override
+    protected void moveInternal(final AzureBlobStoragePath source, final AzureBlobStoragePath target,
+            final CopyOption... options) throws IOException {
+        // also before the move, so that the checks of the target do not see a stale entry
+        target.getFileSystem().getNegativeCache().invalidate(target);
+        try {
+            if (source.getBlobName() != null && target.getBlobName() != null && isDirectory(source)) {
+                final AzureBlobStorageTreeCopyOption treeCopyOption = AzureBlobStorageTreeCopyOption.get(options);
+                moveTree(source, target, treeCopyOption == null ? null : treeCopyOption.getProgress());
+            } else {
+                super.moveInternal(source, target, options);
+            }
+        } finally {
+            target.getFileSystem().getNegativeCache().invalidate(target);
+        }
+        source.getFileSystem().removeFromAttributeCacheDeep(source);
+    }
+
+    private void checkTreeOperation(final AzureBlobStoragePath source, final AzureBlobStoragePath target)
+            throws IOException {
+        if (source.isRoot() || source.getBlobName() == null || target.isRoot() || target.getBlobName() == null) {
+            throw new IOException("Only directories within containers can be copied or moved as a whole");
+        }
+        if (!isDirectory(source)) {
+            throw new NotDirectoryException(source.toString());
+        }
+        if (target.startsWith(source)) {
+            throw new IOException(String.format("Cannot copy or move %s into itself", source.toString()));
+        }
+    }
+
+    private long copyTreeInternal(final AzureBlobStoragePath source, final AzureBlobStoragePath target,
+            final boolean skipUpToDate, final LongConsumer progress) throws IOException {
+        if (!existsCached(target)) {
+            createDirectory(target);
+        }
+
+        final long copied = new AzureBlobStorageTreeCopy(source, target, progress) //
+                .skipUpToDate(skipUpToDate) //
+                .run();
+        if (copied > 0) {
+            removeDirectoryMarker(target);
+        }
+        return copied;
+    }
+
+    /**
+     * Deletes the given file, or the given directory including all of its
+     * contents. The blobs of a directory are found with a single flat listing and
+     * deleted with concurrent asynchronous requests (see
+     * {@link AzureBlobStorageFileSystem#getBulkOperationConcurrency()}), instead
+     * of reading the attributes of and deleting each path separately. The
+     * directory marker of the parent directory is only fixed up once at the end.
+     *
+     * @param path
+     *            The file or directory to delete.
+     * @throws IOException
+     *             if the path does not exist or any blob could not be deleted.
+     *             All other blobs are deleted nevertheless.
+     */
+    @SuppressWarnings("resource")
+    public void deleteRecursively(final AzureBlobStoragePath path) throws IOException {
+        final AzureBlobStoragePath absolutePath = (AzureBlobStoragePath) path.toAbsolutePath().normalize();
+        final AzureBlobStorageFileSystem fs = absolutePath.getFileSystem();
+
+        if (absolutePath.isRoot()) {
+            throw new IOException("Cannot delete the root directory");
+        }
+
+        if (absolutePath.getBlobName() == null || !isDirectory(absolutePath)) {
+            // deleting a container also deletes all its blobs
+            delete(absolutePath);
+            return;
+        }
+
+        try {
+            AzureBlobStorageAsyncBulkOperations.deleteBlobs(fs, absolutePath);
+            restoreDirectoryIfMissing((AzureBlobStoragePath) absolutePath.getParent());
+        } finally {
+            fs.removeFromAttributeCacheDeep(absolutePath);
+        }
+    }
+
+    /**
+     * Creates a directory marker for the given directory, if it does not exist
+     * (anymore). Needed after deleting blobs, since a directory without blobs
+     * ceases to exist in Azure Blob Storage.
+     *
+     * @param dir
+     *            The directory whose content was deleted.
+     * @throws IOException
+     */
+    void restoreDirectoryIfMissing(final AzureBlobStoragePath dir) throws IOException {
+        if (!exists(dir)) {
+            createDirectoryInternal(dir);
+        }
+    }
+
+    /**
+     * Removes directory marker object corresponding to the given directory, after
+     * content was written to it. The marker is only removed once per directory and
+     * file system, since the file system keeps track of the directories whose
+     * marker is already gone.
      *
      * @param dir
      *            The directory path.
      * @throws IOException
      */
+    @SuppressWarnings("resource")
     public static void removeDirectoryMarker(final AzureBlobStoragePath dir) throws IOException {
+        if (dir.getBlobName() != null) {
+            final AzureBlobStorageFileSystem fs = dir.getFileSystem();
+            if (fs.needsDirectoryMarkerCleanup(dir)) {
+                deleteDirectoryMarker(dir);
+                fs.directoryMarkerRemoved(dir);
+            }
+        }
+    }
+
+    private static void deleteDirectoryMarker(final AzureBlobStoragePath dir) throws IOException {
         if (dir.getBlobName() != null) {
             boolean deleted = tryToDeleteBlob(dir.getDirectoryMarkerFile());
             if (!deleted) {
@@ -430,7 +900,7 @@ public static void removeDirectoryMarker(final AzureBlobStoragePath dir) throws
 
     @SuppressWarnings("resource")
     private static boolean tryToDeleteBlob(final AzureBlobStoragePath path) throws IOException {
-        BlobContainerClient contClient = path.getFileSystem().getClient().getBlobContainerClient(path.getBucketName());
+        BlobContainerClient contClient = path.getFileSystem().getContainerClient(path.getBucketName());
         try {
             contClient.getBlobClient(path.getBlobName()).delete();
             return true;
@@ -443,4 +913,35 @@ private static boolean tryToDeleteBlob(final AzureBlobStoragePath path) throws I
         }
 
     }
+
+    /**
+     * Deletes the given blob if the given exception shows that it could not be
+     * written because it is not a block blob, e.g. an append blob that was written
+     * by another client. Block blob uploads cannot change the type of an
+     * existing blob, hence such a blob has to be deleted before it can be replaced.
+     *
+     * @param path
+     *            The blob that could not be written.
+     * @param ex
+     *            The exception of the failed block blob request.
+     * @return true if the blob was deleted and the request can be repeated, false
+     *         if the request failed for another reason.
+     * @throws IOException
+     *             if the blob could not be deleted.
+     */
+    @SuppressWarnings("resource")
+    static boolean deleteIfNotBlockBlob(final AzureBlobStoragePath path, final BlobStorageException ex)
+            throws IOException {
+        if (!BlobErrorCode.INVALID_BLOB_TYPE.equals(ex.getErrorCode())) {
+            return false;
+        }
+        try {
+            path.getFileSystem().getContainerClient(path.getBucketName()) //
+                    .getBlobClient(path.getBlobName()) //
+                    .deleteIfExists();
+        } catch (BlobStorageException deleteEx) {
+            throw AzureUtils.toIOE(deleteEx, path.toString());
+        }
+        return true;
+    }
 }
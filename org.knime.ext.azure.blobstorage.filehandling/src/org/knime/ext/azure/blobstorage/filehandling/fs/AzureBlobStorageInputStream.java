@@ -0,0 +1,199 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * {@link InputStream} implementation to read blobs from Azure Blob Storage.
+ * The blob is read in chunks with range requests, where the next chunks are
+ * fetched concurrently in the background while the current one is consumed.
+ * The number of prefetched chunks is bounded by the read-ahead depth.
+ *
+ * @author KNIME GmbH
+ */
+class AzureBlobStorageInputStream extends InputStream {
+
+    private final AzureBlobStorageRangeReader m_reader;
+
+    private final int m_chunkSize;
+
+    private final int m_readAheadDepth;
+
+    private final Deque<Future<byte[]>> m_prefetched = new ArrayDeque<>();
+
+    private long m_nextFetchOffset;
+
+    private byte[] m_buffer;
+
+    private int m_bufferOffset;
+
+    private boolean m_closed;
+
+    /**
+     * Creates a new instance and synchronously reads the first chunk.
+     *
+     * @param path
+     *            The blob to read.
+     * @throws IOException
+     *             if the blob does not exist or could not be read.
+     */
+    @SuppressWarnings("resource")
+    AzureBlobStorageInputStream(final AzureBlobStoragePath path) throws IOException {
+        final AzureBlobStorageFileSystem fs = path.getFileSystem();
+        m_reader = new AzureBlobStorageRangeReader(path);
+        m_chunkSize = Math.max(1, fs.getReadChunkSize());
+        m_readAheadDepth = Math.max(0, fs.getReadAheadDepth());
+
+        m_buffer = m_reader.read(0, m_chunkSize);
+        m_bufferOffset = 0;
+        m_nextFetchOffset = m_buffer.length;
+        scheduleReadAhead();
+    }
+
+    @SuppressWarnings("resource")
+    private void scheduleReadAhead() {
+        while (m_prefetched.size() < m_readAheadDepth && m_nextFetchOffset < m_reader.getSize()) {
+            final long offset = m_nextFetchOffset;
+            final int length = (int) Math.min(m_chunkSize, m_reader.getSize() - offset);
+            m_prefetched.add(m_reader.getPath().getFileSystem().getTransferExecutor()
+                    .submit(() -> m_reader.read(offset, length)));
+            m_nextFetchOffset += length;
+        }
+    }
+
+    /**
+     * Makes sure that the buffer has unread bytes, unless the end of the blob was
+     * reached.
+     *
+     * @return false if the end of the blob was reached, true otherwise.
+     */
+    private boolean fillBuffer() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+
+        while (m_bufferOffset == m_buffer.length) {
+            if (!m_prefetched.isEmpty()) {
+                m_buffer = awaitChunk(m_prefetched.poll());
+            } else if (m_nextFetchOffset < m_reader.getSize()) {
+                // read-ahead is disabled
+                final int length = (int) Math.min(m_chunkSize, m_reader.getSize() - m_nextFetchOffset);
+                m_buffer = m_reader.read(m_nextFetchOffset, length);
+                m_nextFetchOffset += m_buffer.length;
+            } else {
+                return false;
+            }
+            m_bufferOffset = 0;
+            scheduleReadAhead();
+        }
+        return true;
+    }
+
+    private byte[] awaitChunk(final Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+            close();
+            throw new InterruptedIOException("Interrupted while reading " + m_reader.getPath().toString());
+        } catch (ExecutionException ex) {
+            close();
+            if (ex.getCause() instanceof IOException ioe) {
+                throw ioe;
+            }
+            throw new IOException("Failed to read " + m_reader.getPath().toString(), ex.getCause());
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fillBuffer()) {
+            return -1;
+        }
+        // return byte as int between 0 and 255
+        return m_buffer[m_bufferOffset++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] dest, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fillBuffer()) {
+            return -1;
+        }
+
+        final int bytesToRead = Math.min(len, m_buffer.length - m_bufferOffset);
+        System.arraycopy(m_buffer, m_bufferOffset, dest, off, bytesToRead);
+        m_bufferOffset += bytesToRead;
+        return bytesToRead;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return m_closed ? 0 : (m_buffer.length - m_bufferOffset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!m_closed) {
+            m_closed = true;
+            m_prefetched.forEach(f -> f.cancel(true));
+            m_prefetched.clear();
+            m_buffer = new byte[0];
+            m_bufferOffset = 0;
+        }
+    }
+}
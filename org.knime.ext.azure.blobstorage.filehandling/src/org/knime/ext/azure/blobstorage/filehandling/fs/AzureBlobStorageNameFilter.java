@@ -0,0 +1,314 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.nio.file.DirectoryStream.Filter;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link Filter} that accepts the entries of a directory whose file name
+ * matches a glob or a regular expression. When passed to
+ * {@link AzureBlobStorageFileSystemProvider#newDirectoryStream(Path, Filter)},
+ * the longest literal prefix of the pattern is pushed down into the listing
+ * request, so that only the blobs starting with it are listed (e.g. the glob
+ * <code>2024-06-*.json</code> only lists the blobs starting with
+ * <code>2024-06-</code>). The remainder of the pattern is matched client-side.
+ * The same holds for the filters of
+ * {@link java.nio.file.Files#newDirectoryStream(Path, String)}, as the path
+ * matchers of {@link AzureBlobStorageFileSystem#getPathMatcher(String)} are
+ * name filters. Other filters are applied to the complete listing of the
+ * directory.
+ *
+ * @author KNIME GmbH
+ */
+public final class AzureBlobStorageNameFilter implements Filter<Path>, PathMatcher {
+
+    private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}";
+
+    private final Pattern m_pattern;
+
+    private final String m_literalPrefix;
+
+    private AzureBlobStorageNameFilter(final Pattern pattern, final String literalPrefix) {
+        m_pattern = pattern;
+        m_literalPrefix = literalPrefix;
+    }
+
+    /**
+     * Creates a filter that matches file names against a glob. The glob supports
+     * <code>*</code>, <code>**</code>, <code>?</code>, bracket expressions
+     * (negated with <code>!</code>), <code>{a,b}</code> groups and
+     * <code>\</code> escapes, like {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+     *
+     * @param glob
+     *            The glob.
+     * @return the filter.
+     * @throws IllegalArgumentException
+     *             if the glob is invalid.
+     */
+    public static AzureBlobStorageNameFilter glob(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder prefix = new StringBuilder();
+        boolean literal = true;
+        boolean inGroup = false;
+
+        int i = 0;
+        while (i < glob.length()) {
+            final char c = glob.charAt(i++);
+            switch (c) {
+            case '\\':
+                final char escaped = i < glob.length() ? glob.charAt(i++) : '\\';
+                appendQuoted(regex, escaped);
+                if (literal) {
+                    prefix.append(escaped);
+                }
+                break;
+            case '*':
+                if (i < glob.length() && glob.charAt(i) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+                literal = false;
+                break;
+            case '?':
+                regex.append("[^/]");
+                literal = false;
+                break;
+            case '[':
+                i = appendBracketExpression(glob, i, regex);
+                literal = false;
+                break;
+            case '{':
+                if (inGroup) {
+                    throw new IllegalArgumentException("Nested groups are not supported: " + glob);
+                }
+                regex.append("(?:");
+                inGroup = true;
+                literal = false;
+                break;
+            case '}':
+                if (inGroup) {
+                    regex.append(')');
+                    inGroup = false;
+                } else {
+                    appendQuoted(regex, c);
+                }
+                break;
+            case ',':
+                if (inGroup) {
+                    regex.append('|');
+                } else {
+                    appendQuoted(regex, c);
+                    if (literal) {
+                        prefix.append(c);
+                    }
+                }
+                break;
+            default:
+                appendQuoted(regex, c);
+                if (literal) {
+                    prefix.append(c);
+                }
+            }
+        }
+
+        if (inGroup) {
+            throw new IllegalArgumentException("Missing '}' in glob: " + glob);
+        }
+
+        return new AzureBlobStorageNameFilter(Pattern.compile(regex.toString(), Pattern.DOTALL),
+                prefix.toString());
+    }
+
+    /**
+     * Creates a filter that matches (the whole) file names against a regular
+     * expression.
+     *
+     * @param regex
+     *            The regular expression.
+     * @return the filter.
+     * @throws java.util.regex.PatternSyntaxException
+     *             if the regular expression is invalid.
+     */
+    public static AzureBlobStorageNameFilter regex(final String regex) {
+        return regex(Pattern.compile(regex));
+    }
+
+    /**
+     * Creates a filter that matches (the whole) file names against a regular
+     * expression.
+     *
+     * @param pattern
+     *            The compiled regular expression.
+     * @return the filter.
+     */
+    public static AzureBlobStorageNameFilter regex(final Pattern pattern) {
+        return new AzureBlobStorageNameFilter(pattern, getLiteralPrefix(pattern));
+    }
+
+    @Override
+    public boolean accept(final Path entry) {
+        final Path fileName = entry.getFileName();
+        return fileName != null && matches(fileName);
+    }
+
+    @Override
+    public boolean matches(final Path path) {
+        String name = path.toString();
+        final String separator = path.getFileSystem().getSeparator();
+        if (name.length() > separator.length() && name.endsWith(separator)) {
+            name = name.substring(0, name.length() - separator.length());
+        }
+        return m_pattern.matcher(name).matches();
+    }
+
+    /**
+     * @param separator
+     *            The separator of the file system.
+     * @return the literal prefix all accepted file names start with, possibly
+     *         empty. File names never contain the separator, so the prefix ends
+     *         before the first one.
+     */
+    String getLiteralPrefix(final String separator) {
+        final int index = m_literalPrefix.indexOf(separator);
+        return index < 0 ? m_literalPrefix : m_literalPrefix.substring(0, index);
+    }
+
+    @Override
+    public String toString() {
+        return m_pattern.pattern();
+    }
+
+    private static int appendBracketExpression(final String glob, final int start, final StringBuilder regex) {
+        int i = start;
+        regex.append('[');
+        if (i < glob.length() && glob.charAt(i) == '!') {
+            regex.append('^');
+            i++;
+        }
+
+        boolean first = true;
+        while (i < glob.length()) {
+            final char c = glob.charAt(i++);
+            if (c == ']' && !first) {
+                regex.append(']');
+                return i;
+            }
+            if (c == '\\' || c == '[' || c == ']' || c == '&' || c == '^') {
+                regex.append('\\');
+            }
+            regex.append(c);
+            first = false;
+        }
+        throw new IllegalArgumentException("Missing ']' in glob: " + glob);
+    }
+
+    private static void appendQuoted(final StringBuilder regex, final char c) {
+        if (REGEX_META_CHARS.indexOf(c) >= 0) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+
+    /**
+     * Determines the literal prefix of a regular expression, i.e. the leading
+     * characters that are neither quantified nor part of a group, character
+     * class or other construct. This is conservative: alternations and flags
+     * that change how characters match result in an empty prefix.
+     */
+    private static String getLiteralPrefix(final Pattern pattern) {
+        final String regex = pattern.pattern();
+        final int flags = pattern.flags();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return (flags & (Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)) == 0 ? regex : "";
+        }
+        if ((flags & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0
+                || regex.indexOf('|') >= 0) {
+            return "";
+        }
+
+        final StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            final int c = regex.codePointAt(i);
+            int next = i + Character.charCount(c);
+            final int literal;
+            if (c == '\\') {
+                if (next >= regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+                    // character classes, back references, quotes etc.
+                    break;
+                }
+                literal = regex.codePointAt(next);
+                next += Character.charCount(literal);
+            } else if (c < 0x80 && REGEX_META_CHARS.indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+            }
+
+            if (next < regex.length()) {
+                final char quantifier = regex.charAt(next);
+                if (quantifier == '*' || quantifier == '?' || quantifier == '{') {
+                    break;
+                }
+                if (quantifier == '+') {
+                    prefix.appendCodePoint(literal);
+                    break;
+                }
+            }
+            prefix.appendCodePoint(literal);
+            i = next;
+        }
+        return prefix.toString();
+    }
+}
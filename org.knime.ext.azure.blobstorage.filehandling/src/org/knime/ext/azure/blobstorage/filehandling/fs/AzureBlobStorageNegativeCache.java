@@ -0,0 +1,184 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.nio.file.Path;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of paths that were found not to exist. The attribute cache
+ * of the file system only holds existing paths, so without this cache every
+ * existence check of a path that does not exist yet (e.g. the target of a
+ * copy) sends requests to the service. Entries are invalidated by the
+ * operations of the file system that create paths. The entries are sorted by
+ * path, so that the entries below a path can be invalidated without looking at
+ * all other entries.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageNegativeCache {
+
+    private static final int MAX_ENTRIES = 10000;
+
+    private final long m_ttl;
+
+    // guarded by this
+    private final NavigableMap<String, Long> m_expiryTimes = new TreeMap<>();
+
+    private final AtomicLong m_hits = new AtomicLong();
+
+    private final AtomicLong m_misses = new AtomicLong();
+
+    /**
+     * @param ttl
+     *            The time to live of entries in milliseconds. A value of zero or
+     *            less disables the cache.
+     */
+    AzureBlobStorageNegativeCache(final long ttl) {
+        m_ttl = ttl;
+    }
+
+    /**
+     * @param path
+     *            The path to look up.
+     * @return true if the path is known not to exist, false otherwise.
+     */
+    boolean isKnownMissing(final AzureBlobStoragePath path) {
+        final String key = toKey(path);
+        synchronized (this) {
+            final Long expiryTime = m_expiryTimes.get(key);
+            if (expiryTime != null && expiryTime > System.currentTimeMillis()) {
+                m_hits.incrementAndGet();
+                return true;
+            }
+
+            if (expiryTime != null) {
+                m_expiryTimes.remove(key);
+            }
+        }
+        m_misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Records that the given path does not exist.
+     *
+     * @param path
+     *            The path that does not exist.
+     */
+    synchronized void addMissing(final AzureBlobStoragePath path) {
+        if (m_ttl <= 0) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        if (m_expiryTimes.size() >= MAX_ENTRIES) {
+            m_expiryTimes.values().removeIf(expiryTime -> expiryTime <= now);
+            if (m_expiryTimes.size() >= MAX_ENTRIES) {
+                m_expiryTimes.clear();
+            }
+        }
+        m_expiryTimes.put(toKey(path), now + m_ttl);
+    }
+
+    /**
+     * Invalidates all entries that may be affected by creating the given path:
+     * the path itself, all of its ancestors and all paths below it.
+     *
+     * @param path
+     *            The path that was created (or written, copied or moved to).
+     */
+    synchronized void invalidate(final AzureBlobStoragePath path) {
+        if (m_expiryTimes.isEmpty()) {
+            return;
+        }
+
+        final String key = toKey(path);
+        final String separator = path.getFileSystem().getSeparator();
+        final String descendantPrefix = key.endsWith(separator) ? key : (key + separator);
+
+        // the path itself and its ancestors, with and without trailing separator
+        for (Path ancestor = path.toAbsolutePath(); ancestor != null; ancestor = ancestor.getParent()) {
+            final String ancestorKey = ancestor.toString();
+            m_expiryTimes.remove(ancestorKey);
+            m_expiryTimes.remove(ancestorKey.endsWith(separator)
+                    ? ancestorKey.substring(0, ancestorKey.length() - 1) : (ancestorKey + separator));
+        }
+
+        // all paths below it, which are sorted right after the prefix
+        m_expiryTimes.subMap(descendantPrefix, true, descendantPrefix + Character.MAX_VALUE, false).clear();
+    }
+
+    /**
+     * Removes all entries.
+     */
+    synchronized void clear() {
+        m_expiryTimes.clear();
+    }
+
+    /**
+     * @return the number of lookups that found a path to be missing
+     */
+    long getHitCount() {
+        return m_hits.get();
+    }
+
+    /**
+     * @return the number of lookups that had to query the service
+     */
+    long getMissCount() {
+        return m_misses.get();
+    }
+
+    private static String toKey(final AzureBlobStoragePath path) {
+        return path.toAbsolutePath().toString();
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlockBlobCommitBlockListOptions;
+import com.azure.storage.blob.options.BlockBlobSimpleUploadOptions;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+
+/**
+ * {@link OutputStream} implementation that writes a block blob without spooling
+ * it to a local temporary file. Written data is cut into blocks which are staged
+ * in the background while the caller keeps writing. The block list is committed
+ * when the stream is closed. The number of blocks that are in flight at the
+ * same time is bounded, hence so is the memory used by the stream. An existing
+ * append blob is deleted and replaced with a block blob.
+ *
+ * @author KNIME GmbH
+ */
+class AzureBlobStorageOutputStream extends OutputStream {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final AzureBlobStoragePath m_path;
+
+    private final BlockBlobClient m_client;
+
+    private final Map<String, String> m_tags;
+
+    private final int m_blockSize;
+
+    private final Semaphore m_inFlightBlocks;
+
+    private final String m_blockIdPrefix = UUID.randomUUID().toString();
+
+    private final List<String> m_blockIds = new ArrayList<>();
+
+    private final List<Future<?>> m_pendingBlocks = new ArrayList<>();
+
+    private byte[] m_buffer = new byte[0];
+
+    private int m_bufferLength;
+
+    private boolean m_closed;
+
+    private boolean m_nonBlockBlobDeleted;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path
+     *            The blob to write.
+     * @param tags
+     *            The blob index tags to set, may be null.
+     */
+    @SuppressWarnings("resource")
+    AzureBlobStorageOutputStream(final AzureBlobStoragePath path, final Map<String, String> tags) {
+        final AzureBlobStorageFileSystem fs = path.getFileSystem();
+        m_path = path;
+        m_tags = tags;
+        m_client = fs.getContainerClient(path.getBucketName()) //
+                .getBlobClient(path.getBlobName()) //
+                .getBlockBlobClient();
+        m_blockSize = (int) Math.min(fs.getUploadTransferOptions().getBlockSizeLong(), Integer.MAX_VALUE - 8L);
+        m_inFlightBlocks = new Semaphore(Math.max(1, fs.getMaxInFlightUploadBlocks()));
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        ensureCapacity(1);
+        m_buffer[m_bufferLength++] = (byte) b;
+        stageBlockIfFull();
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        ensureOpen();
+        int written = 0;
+        while (written < len) {
+            final int chunk = Math.min(len - written, m_blockSize - m_bufferLength);
+            ensureCapacity(chunk);
+            System.arraycopy(b, off + written, m_buffer, m_bufferLength, chunk);
+            m_bufferLength += chunk;
+            written += chunk;
+            stageBlockIfFull();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (m_closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void ensureCapacity(final int additionalBytes) {
+        final int required = m_bufferLength + additionalBytes;
+        if (required > m_buffer.length) {
+            final int newLength = (int) Math.min(m_blockSize,
+                    Math.max(required, Math.max(INITIAL_BUFFER_SIZE, 2L * m_buffer.length)));
+            m_buffer = Arrays.copyOf(m_buffer, newLength);
+        }
+    }
+
+    private void stageBlockIfFull() throws IOException {
+        if (m_bufferLength == m_blockSize) {
+            stageBuffer();
+        }
+    }
+
+    private void stageBuffer() throws IOException {
+        checkPendingBlocks(false);
+
+        try {
+            m_inFlightBlocks.acquire();
+        } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+            cancelPendingBlocks();
+            throw new InterruptedIOException("Interrupted while waiting for blocks to be uploaded");
+        }
+
+        final String blockId = nextBlockId();
+        final byte[] data = m_buffer;
+        final int length = m_bufferLength;
+        m_blockIds.add(blockId);
+
+        try {
+            m_pendingBlocks.add(m_path.getFileSystem().getTransferExecutor().submit(() -> {
+                try {
+                    stageBlock(blockId, data, length);
+                } finally {
+                    m_inFlightBlocks.release();
+                }
+                return null;
+            }));
+        } catch (RuntimeException ex) { // NOSONAR executor may reject the task if the file system was closed
+            m_inFlightBlocks.release();
+            throw new IOException("Could not upload block of " + m_path.toString(), ex);
+        }
+
+        // the staged buffer is owned by the upload task now
+        m_buffer = new byte[0];
+        m_bufferLength = 0;
+    }
+
+    private void stageBlock(final String blockId, final byte[] data, final int length) throws IOException {
+        try {
+            m_client.stageBlockWithResponse(blockId, new ByteArrayInputStream(data, 0, length), length, null, null,
+                    null, m_path.getFileSystem().getTransferContext(length));
+        } catch (BlobStorageException ex) {
+            if (!deleteIfNotBlockBlob(ex)) {
+                throw ex;
+            }
+            m_client.stageBlockWithResponse(blockId, new ByteArrayInputStream(data, 0, length), length, null, null,
+                    null, m_path.getFileSystem().getTransferContext(length));
+        }
+    }
+
+    /**
+     * Deletes the blob if it could not be written because it is an append blob.
+     * Blocks are staged concurrently, hence several of them may fail before the
+     * blob is gone, but it must only be deleted once, as deleting it again would
+     * discard the blocks that were staged in the meantime.
+     */
+    private synchronized boolean deleteIfNotBlockBlob(final BlobStorageException ex) throws IOException {
+        if (m_nonBlockBlobDeleted) {
+            return BlobErrorCode.INVALID_BLOB_TYPE.equals(ex.getErrorCode());
+        }
+        m_nonBlockBlobDeleted = AzureBlobStorageFileSystemProvider.deleteIfNotBlockBlob(m_path, ex);
+        return m_nonBlockBlobDeleted;
+    }
+
+    private String nextBlockId() {
+        // all block IDs of a blob must have the same length
+        final String rawId = String.format("%s-%06d", m_blockIdPrefix, m_blockIds.size());
+        return Base64.getEncoder().encodeToString(rawId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Checks the outcome of the block uploads that were started so far.
+     *
+     * @param waitForCompletion
+     *            Whether to wait for uploads that are still running.
+     */
+    private void checkPendingBlocks(final boolean waitForCompletion) throws IOException {
+        final var iter = m_pendingBlocks.iterator();
+        while (iter.hasNext()) {
+            final Future<?> future = iter.next();
+            if (!waitForCompletion && !future.isDone()) {
+                continue;
+            }
+
+            try {
+                future.get();
+                iter.remove();
+            } catch (InterruptedException ex) { // NOSONAR rethrown as InterruptedIOException
+                cancelPendingBlocks();
+                throw new InterruptedIOException("Interrupted while waiting for blocks to be uploaded");
+            } catch (ExecutionException ex) {
+                cancelPendingBlocks();
+                throw toIOE(ex.getCause());
+            }
+        }
+    }
+
+    private void cancelPendingBlocks() {
+        m_pendingBlocks.forEach(f -> f.cancel(true));
+        m_pendingBlocks.clear();
+    }
+
+    private IOException toIOE(final Throwable cause) {
+        if (cause instanceof HttpResponseException httpEx) {
+            return AzureUtils.toIOE(httpEx, m_path.toString());
+        } else if (cause instanceof IOException ioe) {
+            return ioe;
+        } else {
+            return new IOException("Could not upload block of " + m_path.toString(), cause);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        m_closed = true;
+
+        try {
+            if (m_blockIds.isEmpty()) {
+                // small file, a single request is enough, and as no request conditions
+                // are set, an existing blob is overwritten
+                try {
+                    uploadBuffer();
+                } catch (BlobStorageException ex) {
+                    if (!deleteIfNotBlockBlob(ex)) {
+                        throw ex;
+                    }
+                    uploadBuffer();
+                }
+            } else {
+                if (m_bufferLength > 0) {
+                    stageBuffer();
+                }
+                checkPendingBlocks(true);
+                m_client.commitBlockListWithResponse(
+                        new BlockBlobCommitBlockListOptions(m_blockIds).setTags(m_tags), //
+                        null, m_path.getFileSystem().getTransferContext(0));
+            }
+            AzureBlobStorageFileSystemProvider.removeDirectoryMarker((AzureBlobStoragePath) m_path.getParent());
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        } finally {
+            cancelPendingBlocks();
+            m_buffer = null;
+            m_path.getFileSystem().removeFromAttributeCacheDeep(m_path);
+            m_path.getFileSystem().getNegativeCache().invalidate(m_path);
+        }
+    }
+
+    private void uploadBuffer() {
+        m_client.uploadWithResponse(
+                new BlockBlobSimpleUploadOptions(new ByteArrayInputStream(m_buffer, 0, m_bufferLength),
+                        m_bufferLength).setTags(m_tags),
+                null, m_path.getFileSystem().getTransferContext(m_bufferLength));
+    }
+}
@@ -52,18 +52,30 @@
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.knime.ext.azure.AzureUtils;
 import org.knime.filehandling.core.connections.base.PagedPathIterator;
 import org.knime.filehandling.core.connections.base.attributes.BaseFileAttributes;
 
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.models.BlobContainerItem;
 import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.FindBlobsOptions;
 import com.azure.storage.blob.models.ListBlobContainersOptions;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.models.TaggedBlobItem;
 
 /**
  * Factory for creating an iterator to iterate through
@@ -95,8 +107,125 @@ public static Iterator<AzureBlobStoragePath> create(final AzureBlobStoragePath p
         }
     }
 
+    /**
+     * Creates an iterator over all files and directories below the given
+     * directory (recursively). The blobs are listed with a single flat listing
+     * (see {@link #listBlobsFlat(AzureBlobStoragePath)}), and the directories are
+     * synthesized from the blob names, instead of listing every directory
+     * separately.
+     *
+     * @param path
+     *            path to iterate, must be a container or a directory within a
+     *            container.
+     * @param filter
+     *            {@link Filter} instance.
+     * @return The iterator.
+     * @throws IOException
+     */
+    public static Iterator<AzureBlobStoragePath> createRecursive(final AzureBlobStoragePath path,
+            final Filter<? super Path> filter) throws IOException {
+        return new RecursiveBlobIterator(path.toDirectoryPath(), filter);
+    }
+
+    /**
+     * Lists all blobs below the given directory, including directory markers,
+     * without a delimiter. The pages are requested lazily while iterating, and the
+     * blobs are sorted by name, so that the blobs below any prefix are listed
+     * consecutively.
+     *
+     * @param dir
+     *            The directory to list, must be a container or a directory within a
+     *            container.
+     * @return the blobs below the directory.
+     */
+    static PagedIterable<BlobItem> listBlobsFlat(final AzureBlobStoragePath dir) {
+        return listBlobsFlat(dir, new BlobListDetails());
+    }
+
+    /**
+     * Lists all blobs below the given directory, see
+     * {@link #listBlobsFlat(AzureBlobStoragePath)}.
+     *
+     * @param dir
+     *            The directory to list, must be a container or a directory within a
+     *            container.
+     * @param details
+     *            The additional details to return for each blob.
+     * @return the blobs below the directory.
+     */
+    @SuppressWarnings("resource")
+    static PagedIterable<BlobItem> listBlobsFlat(final AzureBlobStoragePath dir, final BlobListDetails details) {
+        final AzureBlobStorageFileSystem fs = dir.getFileSystem();
+        final ListBlobsOptions opts = new ListBlobsOptions() //
+                .setPrefix(dir.toDirectoryPath().getBlobName()) //
+                .setDetails(details) //
+                .setMaxResultsPerPage(fs.getListPageSize());
+        return fs.getContainerClient(dir.getBucketName()).listBlobs(opts, null);
+    }
+
+    /**
+     * Creates an iterator over the files below the given directory whose blob
+     * index tags match the given expression. The matches are requested page by
+     * page with Find Blobs by Tags, account-wide for the root and within the
+     * container otherwise. Matches outside of a directory within a container and
+     * directory markers are skipped while paging.
+     *
+     * @param path
+     *            The directory to search in.
+     * @param tagQuery
+     *            The tag expression.
+     * @return The iterator.
+     * @throws IOException
+     *             if requesting the first page failed.
+     */
+    static Iterator<AzureBlobStoragePath> createTagQuery(final AzureBlobStoragePath path, final String tagQuery)
+            throws IOException {
+        return new TagQueryIterator(path.toDirectoryPath(), tagQuery);
+    }
+
+    /**
+     * @param path
+     *            The path of a listed blob.
+     * @param properties
+     *            The properties of the blob, as returned by a listing.
+     * @return the attributes of the blob.
+     */
+    static BaseFileAttributes createFileAttributes(final AzureBlobStoragePath path,
+            final BlobItemProperties properties) {
+        final FileTime modifiedAt = Optional.ofNullable(properties.getLastModified()) //
+                .map(t -> FileTime.from(t.toInstant())) //
+                .orElse(FileTime.fromMillis(0));
+        final FileTime createdAt = Optional.ofNullable(properties.getCreationTime()) //
+                .map(t -> FileTime.from(t.toInstant())) //
+                .orElse(modifiedAt);
+        final long size = Optional.ofNullable(properties.getContentLength()).orElse(0L);
+
+        return new BaseFileAttributes(!path.isDirectory(), //
+                path, //
+                modifiedAt, //
+                modifiedAt, //
+                createdAt, //
+                size, //
+                false, //
+                false, //
+                null);
+    }
+
+    /**
+     * @param path
+     *            The path of a directory (i.e. a prefix).
+     * @return the attributes of the directory. Directories have no timestamps in
+     *         Azure Blob Storage, hence all of them are zero.
+     */
+    static BaseFileAttributes createDirectoryAttributes(final AzureBlobStoragePath path) {
+        final FileTime time = FileTime.fromMillis(0);
+        return new BaseFileAttributes(false, path, time, time, time, 0, false, false, null);
+    }
+
     private static final class ContainerIterator extends PagedPathIterator<AzureBlobStoragePath> {
 
+        private String m_continuationToken;
+
         private ContainerIterator(final AzureBlobStoragePath path, final Filter<? super Path> filter)
                 throws IOException {
             super(path, filter);
@@ -105,17 +234,25 @@ private ContainerIterator(final AzureBlobStoragePath path, final Filter<? super
 
         @Override
         protected boolean hasNextPage() {
-            return false;
+            return m_continuationToken != null;
         }
 
         @SuppressWarnings("resource")
         @Override
         protected Iterator<AzureBlobStoragePath> loadNextPage() throws IOException {
             final AzureBlobStorageFileSystem fs = m_path.getFileSystem();
+            final ListBlobContainersOptions opts = new ListBlobContainersOptions()
+                    .setMaxResultsPerPage(fs.getListPageSize());
+
             try {
-                return fs.getClient() //
-                        .listBlobContainers(new ListBlobContainersOptions(), null) //
-                        .stream() //
+                final PagedResponse<BlobContainerItem> page = fs.getClient() //
+                        .listBlobContainers(opts, null) //
+                        .iterableByPage(m_continuationToken) //
+                        .iterator() //
+                        .next();
+                m_continuationToken = page.getContinuationToken();
+
+                return page.getValue().stream() //
                         .map(this::toPath) //
                         .collect(Collectors.toList()) //
                         .iterator();
@@ -141,33 +278,79 @@ private AzureBlobStoragePath toPath(final BlobContainerItem item) {
 
     private static final class BlobIterator extends PagedPathIterator<AzureBlobStoragePath> {
 
+        private final String m_prefix;
+
+        /**
+         * The prefixes ('foo/') of the blobs ('foo') listed so far, as long as the
+         * listing has not passed them. A prefix is not necessarily listed right
+         * after the blob with the same name, since e.g. 'foo-x' and 'foo.csv' sort
+         * in between.
+         */
+        private final NavigableSet<String> m_pendingBlobPrefixes = new TreeSet<>();
+
+        private String m_continuationToken;
+
         private BlobIterator(final AzureBlobStoragePath path, final Filter<? super Path> filter) throws IOException {
             super(path, filter);
+            m_prefix = getListingPrefix(path, filter);
             setFirstPage(loadNextPage());
+            path.getFileSystem().directoryListed(path);
+        }
+
+        /**
+         * Name filters know the literal prefix of all names they accept, which is
+         * appended to the prefix of the directory, so that only the matching part
+         * of the directory is listed. The filter is still applied to the listed
+         * paths.
+         */
+        @SuppressWarnings("resource")
+        private static String getListingPrefix(final AzureBlobStoragePath path, final Filter<? super Path> filter) {
+            final AzureBlobStorageNameFilter nameFilter = path.getFileSystem().getNameFilter(filter);
+            if (nameFilter != null) {
+                final String filterPrefix = nameFilter.getLiteralPrefix(path.getFileSystem().getSeparator());
+                if (!filterPrefix.isEmpty()) {
+                    return Optional.ofNullable(path.getBlobName()).orElse("") + filterPrefix;
+                }
+            }
+            return path.getBlobName();
         }
 
         @Override
         protected boolean hasNextPage() {
-            return false;
+            return m_continuationToken != null;
         }
 
+        /**
+         * Requests a single page of the listing. Only this page is kept in memory,
+         * the next one is requested with the continuation token once the current one
+         * has been consumed.
+         */
         @SuppressWarnings("resource")
         @Override
         protected Iterator<AzureBlobStoragePath> loadNextPage() throws IOException {
 
             final AzureBlobStorageFileSystem fs = m_path.getFileSystem();
-            final ListBlobsOptions opts = new ListBlobsOptions().setPrefix(m_path.getBlobName());
+            final ListBlobsOptions opts = new ListBlobsOptions() //
+                    .setPrefix(m_prefix) //
+                    .setMaxResultsPerPage(fs.getListPageSize());
 
             try {
-                return fs.getClient() //
-                        .getBlobContainerClient(m_path.getBucketName()) //
+                final PagedResponse<BlobItem> page = fs.getContainerClient(m_path.getBucketName()) //
                         .listBlobsByHierarchy(fs.getSeparator(), opts, null) //
-                        .stream() //
+                        .iterableByPage(m_continuationToken) //
+                        .iterator() //
+                        .next();
+                m_continuationToken = page.getContinuationToken();
+
+                final List<AzureBlobStoragePath> paths = page.getValue().stream() //
                         .filter(blob -> !blob.getName().equals(m_path.getBlobName()))
                         .map(this::toPath) //
                         .filter(path -> !path.isDirectoryMarkerFile()) //
-                        .collect(Collectors.toList()) //
-                        .iterator();
+                        .collect(Collectors.toList());
+                if (!paths.isEmpty()) {
+                    fs.directoryFoundNonEmpty(m_path);
+                }
+                return paths.iterator();
             } catch (BlobStorageException ex) {
                 throw AzureUtils.toIOE(ex, m_path.toString());
             }
@@ -176,9 +359,177 @@ protected Iterator<AzureBlobStoragePath> loadNextPage() throws IOException {
         @SuppressWarnings("resource")
         private AzureBlobStoragePath toPath(final BlobItem item) {
             final AzureBlobStorageFileSystem fs = m_path.getFileSystem();
-            // Blob item doesn't have all the necessary info to construct BaseFileAttributes
-            // so we don't do any attributes caching here
-            return new AzureBlobStoragePath(fs, m_path.getBucketName(), item.getName());
+            final AzureBlobStoragePath path = new AzureBlobStoragePath(fs, m_path.getBucketName(), item.getName());
+
+            // the listing is sorted by name, prefixes before the current name cannot follow anymore
+            m_pendingBlobPrefixes.headSet(item.getName(), false).clear();
+
+            if (Boolean.TRUE.equals(item.isPrefix())) {
+                // a blob 'foo' takes precedence over a prefix 'foo/' (see createBlobAttributes),
+                // and is always listed before it
+                if (!m_pendingBlobPrefixes.remove(item.getName())) {
+                    fs.addToAttributeCache(path, createDirectoryAttributes(path));
+                }
+            } else if (item.getProperties() != null && !path.isDirectoryMarkerFile()) {
+                m_pendingBlobPrefixes.add(item.getName() + fs.getSeparator());
+                fs.addToAttributeCache(path, createFileAttributes(path, item.getProperties()));
+            }
+
+            return path;
+        }
+    }
+
+    private static final class RecursiveBlobIterator extends PagedPathIterator<AzureBlobStoragePath> {
+
+        private final String m_prefix;
+
+        /**
+         * The name of the previously listed blob. Since the blobs below a prefix are
+         * listed consecutively, a directory has already been returned iff it is a
+         * prefix of this name.
+         */
+        private String m_lastName;
+
+        /**
+         * The prefixes ('foo/') of the files ('foo') listed so far, as long as the
+         * listing has not passed them (see {@link BlobIterator}).
+         */
+        private final NavigableSet<String> m_pendingBlobPrefixes = new TreeSet<>();
+
+        /**
+         * The prefix of the blobs currently skipped, since a file with the same name
+         * takes precedence over the directory.
+         */
+        private String m_shadowedPrefix;
+
+        private String m_continuationToken;
+
+        private RecursiveBlobIterator(final AzureBlobStoragePath path, final Filter<? super Path> filter)
+                throws IOException {
+            super(path, filter);
+            m_prefix = Optional.ofNullable(path.getBlobName()).orElse("");
+            setFirstPage(loadNextPage());
+            path.getFileSystem().directoryListed(path);
+        }
+
+        @Override
+        protected boolean hasNextPage() {
+            return m_continuationToken != null;
+        }
+
+        @SuppressWarnings("resource")
+        @Override
+        protected Iterator<AzureBlobStoragePath> loadNextPage() throws IOException {
+            try {
+                final PagedResponse<BlobItem> page = listBlobsFlat(m_path) //
+                        .iterableByPage(m_continuationToken) //
+                        .iterator() //
+                        .next();
+                m_continuationToken = page.getContinuationToken();
+
+                final List<AzureBlobStoragePath> paths = new ArrayList<>();
+                for (final BlobItem item : page.getValue()) {
+                    addPaths(item, paths);
+                }
+                if (!paths.isEmpty()) {
+                    m_path.getFileSystem().directoryFoundNonEmpty(m_path);
+                }
+                return paths.iterator();
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, m_path.toString());
+            }
+        }
+
+        @SuppressWarnings("resource")
+        private void addPaths(final BlobItem item, final List<AzureBlobStoragePath> paths) {
+            final AzureBlobStorageFileSystem fs = m_path.getFileSystem();
+            final String separator = fs.getSeparator();
+            final String name = item.getName();
+
+            if (m_shadowedPrefix != null && name.startsWith(m_shadowedPrefix)) {
+                return;
+            }
+            m_shadowedPrefix = null;
+
+            final String pendingPrefix = m_pendingBlobPrefixes.floor(name);
+            // the listing is sorted by name, prefixes before the current name cannot follow anymore
+            m_pendingBlobPrefixes.headSet(name, true).clear();
+            if (pendingPrefix != null && name.startsWith(pendingPrefix)) {
+                // a blob 'foo' takes precedence over a prefix 'foo/' (see createBlobAttributes)
+                m_shadowedPrefix = pendingPrefix;
+                return;
+            }
+
+            // synthesize the directories between the listed directory and the blob
+            // that have not been returned with the previous blob
+            int dirEnd = name.indexOf(separator, m_prefix.length());
+            while (dirEnd >= 0) {
+                final String dirName = name.substring(0, dirEnd + 1);
+                if (m_lastName == null || !m_lastName.startsWith(dirName)) {
+                    final AzureBlobStoragePath dir = new AzureBlobStoragePath(fs, m_path.getBucketName(), dirName);
+                    fs.addToAttributeCache(dir, createDirectoryAttributes(dir));
+                    paths.add(dir);
+                }
+                dirEnd = name.indexOf(separator, dirEnd + 1);
+            }
+            m_lastName = name;
+
+            final AzureBlobStoragePath path = new AzureBlobStoragePath(fs, m_path.getBucketName(), name);
+            if (name.endsWith(separator) || path.isDirectoryMarkerFile() || item.getProperties() == null) {
+                // (legacy) directory markers are covered by their directories
+                return;
+            }
+
+            m_pendingBlobPrefixes.add(name + separator);
+            fs.addToAttributeCache(path, createFileAttributes(path, item.getProperties()));
+            paths.add(path);
+        }
+    }
+
+    private static final class TagQueryIterator extends PagedPathIterator<AzureBlobStoragePath> {
+
+        private final String m_tagQuery;
+
+        private String m_continuationToken;
+
+        private TagQueryIterator(final AzureBlobStoragePath path, final String tagQuery) throws IOException {
+            super(path, p -> true);
+            m_tagQuery = tagQuery;
+            setFirstPage(loadNextPage());
+        }
+
+        @Override
+        protected boolean hasNextPage() {
+            return m_continuationToken != null;
+        }
+
+        @SuppressWarnings("resource")
+        @Override
+        protected Iterator<AzureBlobStoragePath> loadNextPage() throws IOException {
+            final AzureBlobStorageFileSystem fs = m_path.getFileSystem();
+            final FindBlobsOptions opts = new FindBlobsOptions(m_tagQuery) //
+                    .setMaxResultsPerPage(fs.getListPageSize());
+
+            try {
+                final PagedIterable<TaggedBlobItem> items = m_path.isRoot() //
+                        ? fs.getClient().findBlobsByTags(opts, null, Context.NONE) //
+                        : fs.getContainerClient(m_path.getBucketName()).findBlobsByTags(opts, null, Context.NONE);
+                final PagedResponse<TaggedBlobItem> page = items //
+                        .iterableByPage(m_continuationToken) //
+                        .iterator() //
+                        .next();
+                m_continuationToken = page.getContinuationToken();
+
+                final String prefix = Optional.ofNullable(m_path.getBlobName()).orElse("");
+                return page.getValue().stream() //
+                        .filter(item -> item.getName().startsWith(prefix) && !item.getName().equals(prefix)) //
+                        .map(item -> new AzureBlobStoragePath(fs, item.getContainerName(), item.getName())) //
+                        .filter(path -> !path.isDirectoryMarkerFile()) //
+                        .collect(Collectors.toList()) //
+                        .iterator();
+            } catch (BlobStorageException ex) {
+                throw AzureUtils.toIOE(ex, m_path.toString());
+            }
         }
     }
 }
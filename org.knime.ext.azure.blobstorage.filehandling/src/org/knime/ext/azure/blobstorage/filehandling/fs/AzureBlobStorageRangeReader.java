@@ -0,0 +1,212 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+
+/**
+ * Reads byte ranges of a single blob with HTTP range requests. All ranges after
+ * the first one are requested with an If-Match condition on the ETag of the
+ * first response, so that a blob which is modified while being read results in
+ * an error instead of a mix of two versions.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageRangeReader {
+
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    /**
+     * The initial buffer size of a range whose length is not known yet, because
+     * the size of the blob is not known yet. Small blobs are read with the first
+     * range, hence they do not allocate a buffer of the full range size.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final AzureBlobStoragePath m_path;
+
+    private final BlobClient m_client;
+
+    private long m_size = -1;
+
+    private String m_eTag;
+
+    /**
+     * @param path
+     *            The blob to read.
+     */
+    @SuppressWarnings("resource")
+    AzureBlobStorageRangeReader(final AzureBlobStoragePath path) {
+        m_path = path;
+        m_client = path.getFileSystem().getContainerClient(path.getBucketName()) //
+                .getBlobClient(path.getBlobName());
+    }
+
+    /**
+     * Fetches size and ETag of the blob without reading any data.
+     *
+     * @throws IOException
+     *             if the blob does not exist or the request failed.
+     */
+    void fetchProperties() throws IOException {
+        try {
+            final BlobProperties properties = m_client.getProperties();
+            m_size = properties.getBlobSize();
+            m_eTag = properties.getETag();
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+    }
+
+    /**
+     * Reads the given range. If size and ETag of the blob are not known yet, they
+     * are taken from the response.
+     *
+     * @param offset
+     *            The offset of the first byte to read.
+     * @param length
+     *            The maximum number of bytes to read.
+     * @return the bytes read, which may be fewer than requested at the end of the
+     *         blob.
+     * @throws IOException
+     *             if the blob does not exist, was modified or the request failed.
+     */
+    byte[] read(final long offset, final int length) throws IOException {
+        final BlobRequestConditions conditions = m_eTag != null //
+                ? new BlobRequestConditions().setIfMatch(m_eTag) //
+                : null;
+
+        final int bufferSize;
+        if (m_size >= 0) {
+            // the range cannot extend beyond the end of the blob
+            bufferSize = (int) Math.max(0, Math.min(length, m_size - offset));
+            if (bufferSize == 0) {
+                return new byte[0];
+            }
+        } else {
+            bufferSize = Math.min(length, INITIAL_BUFFER_SIZE);
+        }
+
+        try (final var out = new RangeOutputStream(bufferSize)) {
+            final BlobDownloadResponse response = m_client.downloadStreamWithResponse(out,
+                    new BlobRange(offset, (long) length), null, conditions, false, null,
+                    m_path.getFileSystem().getTransferContext(length));
+            if (m_eTag == null) {
+                m_eTag = response.getDeserializedHeaders().getETag();
+                m_size = parseTotalSize(response.getDeserializedHeaders().getContentRange(), out.size());
+            }
+            return out.getBytes();
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == HTTP_RANGE_NOT_SATISFIABLE && offset == 0) {
+                // the service rejects range requests on empty blobs
+                if (m_eTag == null) {
+                    fetchProperties();
+                }
+                return new byte[0];
+            }
+            throw AzureUtils.toIOE(ex, m_path.toString());
+        }
+    }
+
+    private static long parseTotalSize(final String contentRange, final long fallback) {
+        // format: "bytes <first>-<last>/<total>"
+        if (contentRange != null) {
+            final int slash = contentRange.lastIndexOf('/');
+            if (slash >= 0 && slash < contentRange.length() - 1) {
+                try {
+                    return Long.parseLong(contentRange.substring(slash + 1).trim());
+                } catch (NumberFormatException ex) { // NOSONAR fall back to the length of the response
+                    return fallback;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * @return the size of the blob, or -1 if not known yet.
+     */
+    long getSize() {
+        return m_size;
+    }
+
+    /**
+     * @return the path of the blob that is read.
+     */
+    AzureBlobStoragePath getPath() {
+        return m_path;
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} whose bytes are returned without copying if
+     * the buffer was filled exactly, which is the case if the size of the range
+     * was known in advance.
+     */
+    private static final class RangeOutputStream extends ByteArrayOutputStream {
+
+        RangeOutputStream(final int size) {
+            super(size);
+        }
+
+        byte[] getBytes() {
+            return count == buf.length ? buf : Arrays.copyOf(buf, count);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.ext.azure.AzureUtils;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobDownloadResponse;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+
+/**
+ * Process-wide read-through cache of blob contents on the local disk. Entries
+ * are keyed by account, container and blob name and remember the ETag of the
+ * cached content. Every read of a cached blob sends a conditional request
+ * (If-None-Match) with the credentials of the reading file system, so that the
+ * content is only downloaded again if the blob was modified, and access checks
+ * still apply. The least recently used entries are evicted when the cache
+ * exceeds its size limit.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageReadCache {
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private static AzureBlobStorageReadCache instance;
+
+    private final Path m_directory;
+
+    /** In access order, i.e. least recently used first. Guarded by this. */
+    private final Map<String, Entry> m_entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Guarded by this. */
+    private long m_totalSize;
+
+    /**
+     * @param directory
+     *            The directory to store the cached blobs in.
+     */
+    AzureBlobStorageReadCache(final Path directory) {
+        m_directory = directory;
+    }
+
+    /**
+     * @return the cache instance, which stores its files in a directory below the
+     *         KNIME temp directory.
+     * @throws IOException
+     *             if the cache directory could not be created.
+     */
+    static synchronized AzureBlobStorageReadCache getInstance() throws IOException {
+        if (instance == null) {
+            // a new directory per process, as the index of the cache is not persisted
+            final Path directory = Files.createTempDirectory(Path.of(KNIMEConstants.getKNIMETempDir()),
+                    "azure-blob-read-cache");
+            instance = new AzureBlobStorageReadCache(directory);
+        }
+        return instance;
+    }
+
+    /**
+     * Opens an input stream that reads the given blob from the cache, after
+     * downloading it if it is not cached or was modified.
+     *
+     * @param path
+     *            The blob to read.
+     * @param maxSize
+     *            The maximum total size in bytes of the cached blobs.
+     * @return the input stream, or null if the blob is not cached and too large to
+     *         be cached.
+     * @throws IOException
+     *             if the blob does not exist or a request failed.
+     */
+    @SuppressWarnings("resource")
+    InputStream newInputStream(final AzureBlobStoragePath path, final long maxSize) throws IOException {
+        final String key = toKey(path);
+        final BlobClient client = path.getFileSystem().getContainerClient(path.getBucketName()) //
+                .getBlobClient(path.getBlobName());
+
+        final Entry cached = pin(key);
+        if (cached != null) {
+            final Entry downloaded;
+            try {
+                downloaded = download(path, client, key, new BlobRequestConditions().setIfNoneMatch(cached.m_eTag),
+                        cached.m_size, maxSize);
+            } catch (BlobStorageException ex) {
+                if (ex.getStatusCode() == HTTP_NOT_MODIFIED) {
+                    return open(cached);
+                }
+                unpin(cached);
+                throw AzureUtils.toIOE(ex, path.toString());
+            } catch (IOException | RuntimeException ex) { // NOSONAR
+                unpin(cached);
+                throw ex;
+            }
+            // the outdated entry was replaced, its file is deleted once no stream reads it anymore
+            unpin(cached);
+            return open(downloaded);
+        }
+
+        try {
+            final BlobProperties properties = client.getProperties();
+            if (properties.getBlobSize() > maxSize) {
+                return null;
+            }
+            return open(download(path, client, key, new BlobRequestConditions().setIfMatch(properties.getETag()),
+                    properties.getBlobSize(), maxSize));
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, path.toString());
+        }
+    }
+
+    /**
+     * Downloads the blob into a new file and adds it to the cache.
+     *
+     * @return the new entry, which is pinned.
+     */
+    private Entry download(final AzureBlobStoragePath path, final BlobClient client, final String key,
+            final BlobRequestConditions conditions, final long expectedSize, final long maxSize) throws IOException {
+        final Path file = Files.createTempFile(m_directory, "blob", ".bin");
+        try {
+            final BlobDownloadResponse response;
+            try (OutputStream out = Files.newOutputStream(file)) {
+                response = client.downloadStreamWithResponse(out, null, null, conditions, false, null,
+                        path.getFileSystem().getTransferContext(expectedSize));
+            }
+            return store(key, new Entry(file, response.getDeserializedHeaders().getETag(), Files.size(file)),
+                    maxSize);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(file);
+            throw ex;
+        }
+    }
+
+    private synchronized Entry pin(final String key) {
+        final Entry entry = m_entries.get(key);
+        if (entry != null) {
+            entry.m_pins++;
+        }
+        return entry;
+    }
+
+    private synchronized void unpin(final Entry entry) {
+        entry.m_pins--;
+        deleteIfUnused(entry);
+    }
+
+    private synchronized Entry store(final String key, final Entry entry, final long maxSize) {
+        entry.m_pins++;
+
+        final Entry previous = m_entries.remove(key);
+        if (previous != null) {
+            m_totalSize -= previous.m_size;
+            previous.m_evicted = true;
+            deleteIfUnused(previous);
+        }
+
+        if (entry.m_size > maxSize) {
+            // only used by the stream that downloaded it
+            entry.m_evicted = true;
+            return entry;
+        }
+
+        m_entries.put(key, entry);
+        m_totalSize += entry.m_size;
+
+        final Iterator<Entry> lruFirst = m_entries.values().iterator();
+        while (m_totalSize > maxSize && lruFirst.hasNext()) {
+            final Entry candidate = lruFirst.next();
+            if (candidate != entry) {
+                lruFirst.remove();
+                m_totalSize -= candidate.m_size;
+                candidate.m_evicted = true;
+                deleteIfUnused(candidate);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Files of evicted entries that are still being read are deleted when the
+     * last stream is closed.
+     */
+    private static void deleteIfUnused(final Entry entry) {
+        if (entry.m_evicted && entry.m_pins == 0) {
+            try {
+                Files.deleteIfExists(entry.m_file);
+            } catch (IOException ex) { // NOSONAR the KNIME temp directory is cleaned up on shutdown
+            }
+        }
+    }
+
+    /**
+     * Opens the file of the given pinned entry. The entry is unpinned when the
+     * stream is closed.
+     */
+    @SuppressWarnings("resource")
+    private InputStream open(final Entry entry) throws IOException {
+        final InputStream in;
+        try {
+            in = Files.newInputStream(entry.m_file);
+        } catch (IOException ex) {
+            unpin(entry);
+            throw ex;
+        }
+
+        return new FilterInputStream(in) {
+            private boolean m_closed;
+
+            @Override
+            public void close() throws IOException {
+                if (m_closed) {
+                    return;
+                }
+                m_closed = true;
+                try {
+                    super.close();
+                } finally {
+                    unpin(entry);
+                }
+            }
+        };
+    }
+
+    private static String toKey(final AzureBlobStoragePath path) {
+        return path.getFileSystem().getAccountName() + "/" + path.getBucketName() + "/" + path.getBlobName();
+    }
+
+    private static final class Entry {
+
+        private final Path m_file;
+
+        private final String m_eTag;
+
+        private final long m_size;
+
+        /** The number of open streams. Guarded by the cache. */
+        private int m_pins;
+
+        /** Whether the entry was removed from the cache. Guarded by the cache. */
+        private boolean m_evicted;
+
+        private Entry(final Path file, final String eTag, final long size) {
+            m_file = file;
+            m_eTag = eTag;
+            m_size = size;
+        }
+    }
+}
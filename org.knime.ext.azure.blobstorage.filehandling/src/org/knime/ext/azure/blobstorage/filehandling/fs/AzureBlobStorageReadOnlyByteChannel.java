@@ -0,0 +1,192 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-only {@link SeekableByteChannel} for Azure Blob Storage that serves
+ * reads with HTTP range requests instead of downloading the whole blob to a
+ * temporary file first. Fetched blocks are kept in a small LRU cache, so that
+ * readers which repeatedly seek within the same region (e.g. to the footer of a
+ * Parquet file) do not issue a request per read.
+ *
+ * @author KNIME GmbH
+ */
+class AzureBlobStorageReadOnlyByteChannel implements SeekableByteChannel {
+
+    private static final int MAX_CACHED_BLOCKS = 8;
+
+    private final AzureBlobStorageRangeReader m_reader;
+
+    private final int m_blockSize;
+
+    private final Map<Long, byte[]> m_blockCache = new LinkedHashMap<>(MAX_CACHED_BLOCKS + 1, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+
+    private long m_position;
+
+    private boolean m_open = true;
+
+    /**
+     * Creates a new instance. Only the properties of the blob are fetched, no
+     * data is read until the first call to {@link #read(ByteBuffer)}.
+     *
+     * @param path
+     *            The blob to read.
+     * @throws IOException
+     *             if the blob does not exist.
+     */
+    @SuppressWarnings("resource")
+    AzureBlobStorageReadOnlyByteChannel(final AzureBlobStoragePath path) throws IOException {
+        m_reader = new AzureBlobStorageRangeReader(path);
+        m_blockSize = Math.max(1, path.getFileSystem().getReadChunkSize());
+        m_reader.fetchProperties();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return m_open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_open = false;
+        m_blockCache.clear();
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+        ensureOpen();
+
+        final long size = m_reader.getSize();
+        if (m_position >= size) {
+            return -1;
+        }
+
+        int totalRead = 0;
+        while (dst.hasRemaining() && m_position < size) {
+            final long blockIndex = m_position / m_blockSize;
+            final byte[] block = getBlock(blockIndex);
+            final int offsetInBlock = (int) (m_position - blockIndex * m_blockSize);
+            if (offsetInBlock >= block.length) {
+                // the blob is shorter than its properties claimed, i.e. its end is reached
+                return totalRead == 0 ? -1 : totalRead;
+            }
+
+            final int length = Math.min(dst.remaining(), block.length - offsetInBlock);
+            dst.put(block, offsetInBlock, length);
+            m_position += length;
+            totalRead += length;
+        }
+        // zero if the buffer has no space left
+        return totalRead;
+    }
+
+    private byte[] getBlock(final long blockIndex) throws IOException {
+        byte[] block = m_blockCache.get(blockIndex);
+        if (block == null) {
+            final long offset = blockIndex * m_blockSize;
+            final int length = (int) Math.min(m_blockSize, m_reader.getSize() - offset);
+            block = m_reader.read(offset, length);
+            m_blockCache.put(blockIndex, block);
+        }
+        return block;
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return m_position;
+    }
+
+    @Override
+    public SeekableByteChannel position(final long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        m_position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return m_reader.getSize();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!m_open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
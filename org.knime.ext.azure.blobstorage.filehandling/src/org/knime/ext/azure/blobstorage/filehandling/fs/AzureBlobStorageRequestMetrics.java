@@ -0,0 +1,261 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Snapshot of the requests that were sent to Azure Blob Storage, by type of
+ * operation: number of requests, retries and throttled responses, bytes sent
+ * and received, and a histogram of the request latencies (including retries).
+ *
+ * @author KNIME GmbH
+ */
+public final class AzureBlobStorageRequestMetrics {
+
+    /**
+     * Types of operations the requests are grouped by.
+     */
+    public enum Operation {
+        /** Reading (ranges of) a blob. */
+        GET,
+        /** Reading the properties of a blob or container. */
+        HEAD,
+        /** Listing containers or blobs. */
+        LIST,
+        /** Staging a block or appending a block. */
+        PUT_BLOCK,
+        /** Server-side copies. */
+        COPY,
+        /** Uploading blobs, committing block lists and other writes. */
+        PUT,
+        /** Deleting blobs and containers. */
+        DELETE,
+        /** Any other request. */
+        OTHER;
+    }
+
+    static final int REQUESTS = 0;
+
+    static final int ATTEMPTS = 1;
+
+    static final int THROTTLED = 2;
+
+    static final int BYTES_SENT = 3;
+
+    static final int BYTES_RECEIVED = 4;
+
+    static final int TOTAL_LATENCY_MILLIS = 5;
+
+    static final int COUNTER_COUNT = 6;
+
+    /**
+     * The upper bounds (inclusive, in milliseconds) of the latency histogram
+     * buckets. The last bucket of the histogram counts all slower requests.
+     */
+    private static final long[] LATENCY_BUCKET_BOUNDS = { 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+    static final int LATENCY_BUCKET_COUNT = LATENCY_BUCKET_BOUNDS.length + 1;
+
+    private final long[][] m_counters;
+
+    private final long[][] m_latencyHistograms;
+
+    /**
+     * @param counters
+     *            The counters per operation, indexed by the counter constants.
+     * @param latencyHistograms
+     *            The latency histogram per operation.
+     */
+    AzureBlobStorageRequestMetrics(final long[][] counters, final long[][] latencyHistograms) {
+        m_counters = counters;
+        m_latencyHistograms = latencyHistograms;
+    }
+
+    /**
+     * @param latencyMillis
+     *            A request latency in milliseconds.
+     * @return the index of the histogram bucket of the given latency
+     */
+    static int toLatencyBucket(final long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKET_BOUNDS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKET_BOUNDS.length;
+    }
+
+    /**
+     * @return the upper bounds (inclusive, in milliseconds) of the buckets of the
+     *         {@link #getLatencyHistogram(Operation) latency histograms}, except
+     *         for the last bucket, which is unbounded
+     */
+    public static long[] getLatencyBucketBounds() {
+        return LATENCY_BUCKET_BOUNDS.clone();
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of requests, not counting retries
+     */
+    public long getRequestCount(final Operation operation) {
+        return m_counters[operation.ordinal()][REQUESTS];
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of retried attempts
+     */
+    public long getRetryCount(final Operation operation) {
+        return Math.max(0, m_counters[operation.ordinal()][ATTEMPTS] - getRequestCount(operation));
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of attempts the service answered with 429 (Too Many
+     *         Requests) or 503 (Server Busy)
+     */
+    public long getThrottledCount(final Operation operation) {
+        return m_counters[operation.ordinal()][THROTTLED];
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of bytes sent in request bodies, including retries
+     */
+    public long getBytesSent(final Operation operation) {
+        return m_counters[operation.ordinal()][BYTES_SENT];
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of bytes received in response bodies, including retries
+     */
+    public long getBytesReceived(final Operation operation) {
+        return m_counters[operation.ordinal()][BYTES_RECEIVED];
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the number of requests per latency bucket (see
+     *         {@link #getLatencyBucketBounds()})
+     */
+    public long[] getLatencyHistogram(final Operation operation) {
+        return m_latencyHistograms[operation.ordinal()].clone();
+    }
+
+    /**
+     * @param operation
+     *            The operation type.
+     * @return the average latency of the requests in milliseconds, including
+     *         retries, or zero if there were no requests
+     */
+    public double getAverageLatencyMillis(final Operation operation) {
+        final long requests = getRequestCount(operation);
+        return requests == 0 ? 0 : (m_counters[operation.ordinal()][TOTAL_LATENCY_MILLIS] / (double) requests);
+    }
+
+    /**
+     * @return the total number of requests of all operation types, not counting
+     *         retries
+     */
+    public long getTotalRequestCount() {
+        return Arrays.stream(Operation.values()).mapToLong(this::getRequestCount).sum();
+    }
+
+    /**
+     * @param baseline
+     *            Earlier metrics of the same requests.
+     * @return the metrics of the requests that were sent after the baseline
+     */
+    AzureBlobStorageRequestMetrics minus(final AzureBlobStorageRequestMetrics baseline) {
+        final long[][] counters = new long[m_counters.length][];
+        final long[][] latencyHistograms = new long[m_latencyHistograms.length][];
+        for (int op = 0; op < counters.length; op++) {
+            counters[op] = subtract(m_counters[op], baseline.m_counters[op]);
+            latencyHistograms[op] = subtract(m_latencyHistograms[op], baseline.m_latencyHistograms[op]);
+        }
+        return new AzureBlobStorageRequestMetrics(counters, latencyHistograms);
+    }
+
+    private static long[] subtract(final long[] values, final long[] baseline) {
+        final long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i] - baseline[i];
+        }
+        return result;
+    }
+
+    /**
+     * @return a summary with one line per operation type that has requests
+     */
+    @Override
+    public String toString() {
+        final var sb = new StringBuilder();
+        for (final Operation operation : Operation.values()) {
+            if (getRequestCount(operation) > 0) {
+                sb.append(String.format(Locale.ENGLISH,
+                        "%-9s requests=%d retries=%d throttled=%d sent=%dB received=%dB avgLatency=%.1fms " //
+                                + "latencyHistogram=%s%n",
+                        operation, getRequestCount(operation), getRetryCount(operation),
+                        getThrottledCount(operation), getBytesSent(operation), getBytesReceived(operation),
+                        getAverageLatencyMillis(operation), Arrays.toString(getLatencyHistogram(operation))));
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.knime.ext.azure.blobstorage.filehandling.fs.AzureBlobStorageRequestMetrics.Operation;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.http.policy.RetryPolicy;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.common.policy.RequestRetryPolicy;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Records {@link AzureBlobStorageRequestMetrics} of the requests sent through an
+ * HTTP pipeline. Two policies are added to the pipeline: the call policy counts
+ * requests and measures their latency including retries, the retry policy
+ * counts each attempt, throttled responses and the transferred bytes.
+ * <p>
+ * The policies are not added to the client a file system is created with,
+ * which may also be used elsewhere, but to a client that uses the same policies
+ * and HTTP client otherwise (see {@link #instrument(BlobServiceClient)}).
+ * </p>
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageRequestRecorder {
+
+    private static final HttpHeaderName COPY_SOURCE = HttpHeaderName.fromString("x-ms-copy-source");
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final int HTTP_SERVER_BUSY = 503;
+
+    private static final int OPERATION_COUNT = Operation.values().length;
+
+    private final AtomicLongArray m_counters = new AtomicLongArray(
+            OPERATION_COUNT * AzureBlobStorageRequestMetrics.COUNTER_COUNT);
+
+    private final AtomicLongArray m_latencyHistograms = new AtomicLongArray(
+            OPERATION_COUNT * AzureBlobStorageRequestMetrics.LATENCY_BUCKET_COUNT);
+
+    private final RecordingPolicy m_callPolicy = new RecordingPolicy(HttpPipelinePosition.PER_CALL);
+
+    private final RecordingPolicy m_retryPolicy = new RecordingPolicy(HttpPipelinePosition.PER_RETRY);
+
+    /**
+     * Creates a client that sends its requests through the pipeline of the given
+     * client, with the policies of this recorder added. The policies of the given
+     * client (including the credentials and their cached tokens) and its HTTP
+     * client (including the connection pool) are shared, only the requests of the
+     * returned client are recorded.
+     *
+     * @param client
+     *            The client of the file system.
+     * @return the recording client.
+     */
+    BlobServiceClient instrument(final BlobServiceClient client) {
+        final HttpPipeline pipeline = client.getHttpPipeline();
+        final List<HttpPipelinePolicy> policies = new ArrayList<>();
+        int retryPolicyIndex = 0;
+        for (int i = 0; i < pipeline.getPolicyCount(); i++) {
+            final HttpPipelinePolicy policy = pipeline.getPolicy(i);
+            policies.add(policy);
+            if (policy instanceof RequestRetryPolicy || policy instanceof RetryPolicy) {
+                retryPolicyIndex = i;
+            }
+        }
+        // right before the retry policy, so that a call is recorded once, including its retries
+        policies.add(retryPolicyIndex, m_callPolicy);
+        // all policies after the retry policy are run once per attempt
+        policies.add(m_retryPolicy);
+
+        final HttpPipeline recordingPipeline = new HttpPipelineBuilder() //
+                .httpClient(pipeline.getHttpClient()) //
+                .policies(policies.toArray(HttpPipelinePolicy[]::new)) //
+                .build();
+        return new BlobServiceClientBuilder() //
+                .endpoint(client.getAccountUrl()) //
+                .pipeline(recordingPipeline) //
+                .serviceVersion(client.getServiceVersion()) //
+                .buildClient();
+    }
+
+    /**
+     * @return the metrics of all requests recorded so far
+     */
+    AzureBlobStorageRequestMetrics snapshot() {
+        final long[][] counters = new long[OPERATION_COUNT][AzureBlobStorageRequestMetrics.COUNTER_COUNT];
+        final long[][] latencyHistograms =
+                new long[OPERATION_COUNT][AzureBlobStorageRequestMetrics.LATENCY_BUCKET_COUNT];
+        for (int op = 0; op < OPERATION_COUNT; op++) {
+            for (int i = 0; i < counters[op].length; i++) {
+                counters[op][i] = m_counters.get(counterIndex(op, i));
+            }
+            for (int i = 0; i < latencyHistograms[op].length; i++) {
+                latencyHistograms[op][i] = m_latencyHistograms
+                        .get(op * AzureBlobStorageRequestMetrics.LATENCY_BUCKET_COUNT + i);
+            }
+        }
+        return new AzureBlobStorageRequestMetrics(counters, latencyHistograms);
+    }
+
+    private static int counterIndex(final int operation, final int counter) {
+        return operation * AzureBlobStorageRequestMetrics.COUNTER_COUNT + counter;
+    }
+
+    private void recordRequest(final Operation operation, final long startNanos) {
+        final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        final int op = operation.ordinal();
+        m_counters.incrementAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.REQUESTS));
+        m_counters.addAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.TOTAL_LATENCY_MILLIS), latencyMillis);
+        m_latencyHistograms.incrementAndGet(op * AzureBlobStorageRequestMetrics.LATENCY_BUCKET_COUNT
+                + AzureBlobStorageRequestMetrics.toLatencyBucket(latencyMillis));
+    }
+
+    private void recordAttempt(final Operation operation, final HttpRequest request, final HttpResponse response) {
+        final int op = operation.ordinal();
+        m_counters.incrementAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.ATTEMPTS));
+        m_counters.addAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.BYTES_SENT),
+                getContentLength(request.getHeaders()));
+        if (response != null) {
+            if (response.getStatusCode() == HTTP_TOO_MANY_REQUESTS || response.getStatusCode() == HTTP_SERVER_BUSY) {
+                m_counters.incrementAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.THROTTLED));
+            }
+            if (operation != Operation.HEAD) {
+                // the content length of HEAD responses is the size of the blob
+                m_counters.addAndGet(counterIndex(op, AzureBlobStorageRequestMetrics.BYTES_RECEIVED),
+                        getContentLength(response.getHeaders()));
+            }
+        }
+    }
+
+    private static long getContentLength(final HttpHeaders headers) {
+        final String contentLength = headers.getValue(HttpHeaderName.CONTENT_LENGTH);
+        if (contentLength == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException ex) { // NOSONAR not counted
+            return 0;
+        }
+    }
+
+    /**
+     * @param request
+     *            The request.
+     * @return the type of operation of the given request, based on the method,
+     *         the query parameters and the headers
+     */
+    static Operation classify(final HttpRequest request) {
+        final HttpMethod method = request.getHttpMethod();
+        final String query = request.getUrl().getQuery();
+        final Set<String> queryParams = query == null ? Set.of() : new HashSet<>(Arrays.asList(query.split("&")));
+
+        if (method == HttpMethod.HEAD) {
+            return Operation.HEAD;
+        } else if (method == HttpMethod.GET) {
+            return queryParams.contains("comp=list") ? Operation.LIST : Operation.GET;
+        } else if (method == HttpMethod.PUT) {
+            if (queryParams.contains("comp=block") || queryParams.contains("comp=appendblock")) {
+                return Operation.PUT_BLOCK;
+            } else if (queryParams.contains("comp=copy") || request.getHeaders().getValue(COPY_SOURCE) != null) {
+                return Operation.COPY;
+            } else {
+                return Operation.PUT;
+            }
+        } else if (method == HttpMethod.DELETE) {
+            return Operation.DELETE;
+        } else {
+            return Operation.OTHER;
+        }
+    }
+
+    private final class RecordingPolicy implements HttpPipelinePolicy {
+
+        private final HttpPipelinePosition m_position;
+
+        private RecordingPolicy(final HttpPipelinePosition position) {
+            m_position = position;
+        }
+
+        @Override
+        public HttpPipelinePosition getPipelinePosition() {
+            return m_position;
+        }
+
+        @Override
+        public Mono<HttpResponse> process(final HttpPipelineCallContext context, final HttpPipelineNextPolicy next) {
+            final HttpRequest request = context.getHttpRequest();
+            final Operation operation = classify(request);
+
+            if (m_position == HttpPipelinePosition.PER_CALL) {
+                final long startNanos = System.nanoTime();
+                return next.process() //
+                        .doOnSuccess(response -> recordRequest(operation, startNanos)) //
+                        .doOnError(ex -> recordRequest(operation, startNanos));
+            } else {
+                return next.process() //
+                        .doOnSuccess(response -> recordAttempt(operation, request, response)) //
+                        .doOnError(ex -> recordAttempt(operation, request, null));
+            }
+        }
+    }
+}
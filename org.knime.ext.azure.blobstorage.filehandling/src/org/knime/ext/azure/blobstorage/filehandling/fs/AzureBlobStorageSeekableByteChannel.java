@@ -49,23 +49,37 @@
 package org.knime.ext.azure.blobstorage.filehandling.fs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.Set;
 
 import org.knime.ext.azure.AzureUtils;
 import org.knime.filehandling.core.connections.base.TempFileSeekableByteChannel;
 
+import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
 
 /**
  * Azure Blob Storage implementation of the {@link TempFileSeekableByteChannel}.
+ * If the blob is a block blob, the ranges written to the temporary file are
+ * tracked, so that only these need to be uploaded again (see
+ * {@link AzureBlobStorageDeltaUpload}).
  *
  * @author Alexander Bondaletov
  */
 class AzureBlobStorageSeekableByteChannel extends TempFileSeekableByteChannel<AzureBlobStoragePath> {
 
+    // set by copyFromRemote(), which is called by the super constructor, hence no initializer
+    private AzureBlobStorageDeltaUpload m_deltaUpload;
+
+    private final Map<String, String> m_tags;
+
     /**
      * Creates new instance.
      *
@@ -78,21 +92,72 @@ class AzureBlobStorageSeekableByteChannel extends TempFileSeekableByteChannel<Az
     protected AzureBlobStorageSeekableByteChannel(final AzureBlobStoragePath file,
             final Set<? extends OpenOption> options) throws IOException {
         super(file, options);
+        m_tags = AzureBlobStorageTagsOption.getTags(options);
     }
 
     @Override
     public void copyFromRemote(final AzureBlobStoragePath remoteFile, final Path tempFile) throws IOException {
-        Files.copy(remoteFile, tempFile);
+        final AzureBlobStorageDeltaUpload deltaUpload = AzureBlobStorageDeltaUpload.create(remoteFile);
+        if (deltaUpload != null && deltaUpload.download(tempFile)) {
+            m_deltaUpload = deltaUpload;
+        } else {
+            Files.copy(remoteFile, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+        final int written = super.write(src);
+        if (m_deltaUpload != null && written > 0) {
+            final long end = position();
+            m_deltaUpload.markDirty(end - written, end);
+        }
+        return written;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(final long size) throws IOException {
+        super.truncate(size);
+        if (m_deltaUpload != null) {
+            m_deltaUpload.markTruncated(size);
+        }
+        return this;
     }
 
     @SuppressWarnings("resource")
     @Override
     public void copyToRemote(final AzureBlobStoragePath remoteFile, final Path tempFile) throws IOException {
         try {
-            AzureBlobStorageFileSystem fs = remoteFile.getFileSystem();
-            fs.getBlobClientwithIncreasedTimeout(remoteFile.getBucketName(), remoteFile.getBlobName(),
-                    Files.size(tempFile)).uploadFromFile(tempFile.toString(), true);
+            if (m_deltaUpload == null || !m_deltaUpload.upload(tempFile, m_tags)) {
+                uploadFile(remoteFile, tempFile, m_tags);
+            }
             AzureBlobStorageFileSystemProvider.removeDirectoryMarker((AzureBlobStoragePath) remoteFile.getParent());
+        } finally {
+            // after the upload, so that lookups during the upload cannot leave a stale entry
+            remoteFile.getFileSystem().getNegativeCache().invalidate(remoteFile);
+        }
+    }
+
+    @SuppressWarnings("resource")
+    private static void uploadFile(final AzureBlobStoragePath remoteFile, final Path tempFile,
+            final Map<String, String> tags) throws IOException {
+        final AzureBlobStorageFileSystem fs = remoteFile.getFileSystem();
+        final BlobClient client = fs.getContainerClient(remoteFile.getBucketName()) //
+                .getBlobClient(remoteFile.getBlobName());
+        final BlobUploadFromFileOptions uploadOptions = new BlobUploadFromFileOptions(tempFile.toString()) //
+                .setParallelTransferOptions(fs.getUploadTransferOptions()) //
+                .setTags(tags);
+        final long size = Files.size(tempFile);
+        try {
+            // no request conditions are set, hence an existing block blob is overwritten
+            try {
+                client.uploadFromFileWithResponse(uploadOptions, null, fs.getTransferContext(size));
+            } catch (BlobStorageException ex) {
+                if (!AzureBlobStorageFileSystemProvider.deleteIfNotBlockBlob(remoteFile, ex)) {
+                    throw ex;
+                }
+                client.uploadFromFileWithResponse(uploadOptions, null, fs.getTransferContext(size));
+            }
         } catch (BlobStorageException ex) {
             throw AzureUtils.toIOE(ex, remoteFile.toString());
         }
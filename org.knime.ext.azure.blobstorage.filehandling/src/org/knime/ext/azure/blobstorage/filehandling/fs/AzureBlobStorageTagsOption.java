@@ -0,0 +1,121 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.nio.file.OpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link OpenOption} that sets the blob index tags of a blob written through
+ * the {@link AzureBlobStorageFileSystemProvider}, e.g. with
+ * <code>Files.newOutputStream(path, AzureBlobStorageTagsOption.of(tags))</code>.
+ * The tags replace the existing tags of the blob and are set together with the
+ * content whenever possible. Blobs can then be found with
+ * {@link AzureBlobStorageFileSystem#findPathsByTags(java.nio.file.Path, String)}.
+ *
+ * @author KNIME GmbH
+ */
+public final class AzureBlobStorageTagsOption implements OpenOption {
+
+    /** The maximum number of tags of a blob, as given by Azure Blob Storage. */
+    private static final int MAX_TAGS = 10;
+
+    private final Map<String, String> m_tags;
+
+    private AzureBlobStorageTagsOption(final Map<String, String> tags) {
+        m_tags = tags;
+    }
+
+    /**
+     * Creates the option for the given tags.
+     *
+     * @param tags
+     *            The tags (at most ten) by key.
+     * @return the option.
+     * @throws IllegalArgumentException
+     *             if there are more than ten tags.
+     */
+    public static AzureBlobStorageTagsOption of(final Map<String, String> tags) {
+        if (tags.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("A blob cannot have more than " + MAX_TAGS + " tags");
+        }
+        return new AzureBlobStorageTagsOption(Collections.unmodifiableMap(new LinkedHashMap<>(tags)));
+    }
+
+    /**
+     * @return the tags by key.
+     */
+    public Map<String, String> getTags() {
+        return m_tags;
+    }
+
+    /**
+     * @param options
+     *            The options a blob was opened with.
+     * @return the tags of the (last) {@link AzureBlobStorageTagsOption} among the
+     *         options, or null if there is none.
+     */
+    static Map<String, String> getTags(final Collection<? extends OpenOption> options) {
+        Map<String, String> tags = null;
+        for (final OpenOption option : options) {
+            if (option instanceof AzureBlobStorageTagsOption tagsOption) {
+                tags = tagsOption.m_tags;
+            }
+        }
+        return tags;
+    }
+
+    @Override
+    public String toString() {
+        return "TAGS" + m_tags;
+    }
+}
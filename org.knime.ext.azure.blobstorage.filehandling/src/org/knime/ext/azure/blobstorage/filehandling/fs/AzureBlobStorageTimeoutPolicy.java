@@ -0,0 +1,108 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.time.Duration;
+
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.http.policy.TimeoutPolicy;
+import com.azure.core.util.Context;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Replacement of the {@link TimeoutPolicy} that allows to choose the timeout
+ * per request. The timeout is read from the {@link Context} of the request (see
+ * {@link #withTimeout(Duration)}), and falls back to a default timeout if the
+ * context does not specify one. This way a single HTTP pipeline can serve both
+ * small requests and large transfers, which need a longer timeout.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageTimeoutPolicy implements HttpPipelinePolicy {
+
+    private static final String TIMEOUT_CONTEXT_KEY = "knime-blob-storage-timeout";
+
+    private final Duration m_defaultTimeout;
+
+    /**
+     * @param defaultTimeout
+     *            The timeout to use for requests whose context does not specify
+     *            one.
+     */
+    AzureBlobStorageTimeoutPolicy(final Duration defaultTimeout) {
+        m_defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * @param timeout
+     *            The timeout to use for the request.
+     * @return a {@link Context} to pass to a client method, which makes this policy
+     *         apply the given timeout.
+     */
+    static Context withTimeout(final Duration timeout) {
+        return new Context(TIMEOUT_CONTEXT_KEY, timeout);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(final HttpPipelineCallContext context, final HttpPipelineNextPolicy next) {
+        final Duration timeout = context.getData(TIMEOUT_CONTEXT_KEY) //
+                .filter(Duration.class::isInstance) //
+                .map(Duration.class::cast) //
+                .orElse(m_defaultTimeout);
+
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            return next.process();
+        }
+        return next.process().timeout(timeout);
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+import org.knime.credentials.base.CredentialType;
+import org.knime.credentials.base.oauth.api.AccessTokenCredential;
+import org.knime.credentials.base.oauth.api.JWTCredential;
+import org.knime.ext.azure.AzureUtils;
+import org.knime.ext.microsoft.authentication.credential.AzureStorageSharedKeyCredential;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.BlobType;
+import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.UserDelegationKey;
+import com.azure.storage.blob.options.BlobCopyFromUrlOptions;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+
+/**
+ * Copies all blobs below a directory to another directory with server-side
+ * copies, many of them in flight at once. Block blobs smaller than
+ * {@link #MAX_SYNC_COPY_SIZE} are copied with a synchronous Copy Blob From URL
+ * request, which requires the source URL to carry a SAS. Larger blobs, append
+ * blobs and connections that cannot sign a SAS use an asynchronous copy that is
+ * polled until completion.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureBlobStorageTreeCopy {
+
+    /**
+     * Maximum size of a blob that can be copied with Copy Blob From URL.
+     */
+    private static final long MAX_SYNC_COPY_SIZE = 256 * 1024 * 1024L;
+
+    private static final Duration SOURCE_SAS_VALIDITY = Duration.ofHours(1);
+
+    private final AzureBlobStorageFileSystem m_fs;
+
+    private final AzureBlobStoragePath m_source;
+
+    private final AzureBlobStoragePath m_target;
+
+    private final LongConsumer m_progress;
+
+    private final AtomicLong m_copiedBlobs = new AtomicLong();
+
+    private boolean m_skipUpToDate;
+
+    private Function<BlobClient, String> m_sourceSigner;
+
+    /**
+     * @param source
+     *            The directory to copy (absolute).
+     * @param target
+     *            The directory to copy to (absolute).
+     * @param progress
+     *            Receives the number of blobs copied (or skipped) so far, after
+     *            each blob. Called from the threads running the copies, may be
+     *            null.
+     */
+    AzureBlobStorageTreeCopy(final AzureBlobStoragePath source, final AzureBlobStoragePath target,
+            final LongConsumer progress) {
+        m_fs = source.getFileSystem();
+        m_source = source.toDirectoryPath();
+        m_target = target.toDirectoryPath();
+        m_progress = progress;
+    }
+
+    /**
+     * @param skipUpToDate
+     *            Whether to skip blobs whose target is a completed copy of the
+     *            current content of the source (see {@link #needsCopy}). Allows
+     *            to resume a copy that was interrupted. Target blobs that exist
+     *            but were not copied from their source make the copy fail.
+     * @return this instance
+     */
+    AzureBlobStorageTreeCopy skipUpToDate(final boolean skipUpToDate) {
+        m_skipUpToDate = skipUpToDate;
+        return this;
+    }
+
+    /**
+     * Runs the copy.
+     *
+     * @return the number of copied (or skipped) blobs
+     * @throws IOException
+     *             if listing the source or any copy failed. Blobs that were copied
+     *             before the failure remain copied.
+     * @throws FileAlreadyExistsException
+     *             if up to date blobs are skipped, and a target blob exists that
+     *             was not copied from its source.
+     */
+    long run() throws IOException {
+        m_sourceSigner = createSourceSigner();
+
+        final BlobContainerClient sourceContainer = m_fs.getContainerClient(m_source.getBucketName());
+        final BlobContainerClient targetContainer = m_fs.getContainerClient(m_target.getBucketName());
+        final String sourcePrefix = blobPrefix(m_source);
+        final String targetPrefix = blobPrefix(m_target);
+        final String sourceMarker = m_source.getDirectoryMarkerFile().getBlobName();
+
+        final AzureBlobStorageBulkOperation copies = new AzureBlobStorageBulkOperation(m_fs, m_source.toString());
+
+        try {
+            final TargetBlobs targetBlobs = m_skipUpToDate ? new TargetBlobs(m_target) : null;
+            for (final BlobItem item : AzureBlobStoragePathIteratorFactory.listBlobsFlat(m_source)) {
+                final String relativeName = item.getName().substring(sourcePrefix.length());
+                if (relativeName.isEmpty() || item.getName().equals(sourceMarker)) {
+                    // (legacy) marker of the source directory itself, the target has its own
+                    continue;
+                }
+
+                final BlobClient sourceBlob = sourceContainer.getBlobClient(item.getName());
+                final BlobClient targetBlob = targetContainer.getBlobClient(targetPrefix + relativeName);
+                final BlobItemProperties targetProperties = targetBlobs == null ? null
+                        : targetBlobs.getProperties(relativeName);
+                copies.submit(() -> copyBlob(sourceBlob, item.getProperties(), targetBlob, targetProperties));
+            }
+            copies.awaitCompletion();
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, m_source.toString(), m_target.toString());
+        } finally {
+            m_fs.removeFromAttributeCacheDeep(m_target);
+            m_fs.getNegativeCache().invalidate(m_target);
+        }
+
+        return m_copiedBlobs.get();
+    }
+
+    private static String blobPrefix(final AzureBlobStoragePath dir) {
+        return dir.getBlobName() == null ? "" : dir.getBlobName();
+    }
+
+    private void copyBlob(final BlobClient source, final BlobItemProperties sourceProperties,
+            final BlobClient target, final BlobItemProperties targetProperties) throws IOException {
+        try {
+            if (!m_skipUpToDate || needsCopy(source, sourceProperties, target, targetProperties)) {
+                final BlobType blobType = sourceProperties.getBlobType();
+                final long size = sourceProperties.getContentLength() == null ? Long.MAX_VALUE
+                        : sourceProperties.getContentLength();
+
+                if (blobType == BlobType.BLOCK_BLOB && size < MAX_SYNC_COPY_SIZE && m_sourceSigner != null) {
+                    final String sourceUrl = source.getBlobUrl() + "?" + m_sourceSigner.apply(source);
+                    target.copyFromUrlWithResponse(new BlobCopyFromUrlOptions(sourceUrl), null,
+                            m_fs.getTransferContext(size));
+                } else if (blobType == BlobType.BLOCK_BLOB) {
+                    target.beginCopy(source.getBlobUrl(), null).waitForCompletion();
+                } else if (blobType == BlobType.APPEND_BLOB) {
+                    target.getAppendBlobClient().beginCopy(source.getBlobUrl(), null).waitForCompletion();
+                } else {
+                    throw new IOException("Unsupported blob type for copying: " + blobType);
+                }
+            }
+        } catch (BlobStorageException ex) {
+            throw AzureUtils.toIOE(ex, source.getBlobName(), target.getBlobName());
+        }
+
+        if (m_progress != null) {
+            m_progress.accept(m_copiedBlobs.incrementAndGet());
+        } else {
+            m_copiedBlobs.incrementAndGet();
+        }
+    }
+
+    /**
+     * Decides whether a blob needs to be copied when resuming an interrupted copy.
+     * The copy properties of a blob are only present as long as the blob was not
+     * written otherwise after the copy, hence a successful copy from the source
+     * that completed after the source was last modified proves that the target
+     * has the content of the source.
+     *
+     * @param targetProperties
+     *            The properties of the target as listed when the copy started,
+     *            including its copy properties, or null if it did not exist.
+     * @return false if the target is a completed copy of the current content of
+     *         the source, true if it does not exist or is an outdated, pending or
+     *         failed copy of the source. A pending copy is aborted.
+     * @throws FileAlreadyExistsException
+     *             if the target exists but was not copied from the source, in
+     *             which case it must neither be overwritten nor be taken as a
+     *             copy of the source (which a move deletes afterwards).
+     */
+    private static boolean needsCopy(final BlobClient source, final BlobItemProperties sourceProperties,
+            final BlobClient target, final BlobItemProperties targetProperties) throws IOException {
+        if (targetProperties == null) {
+            return true;
+        }
+
+        if (!isCopyOf(source, targetProperties)) {
+            throw new FileAlreadyExistsException(source.getBlobName(), target.getBlobName(),
+                    "Target exists and was not copied from the source");
+        }
+        if (targetProperties.getCopyStatus() == CopyStatusType.PENDING) {
+            // copy of the interrupted run, which has to be aborted before copying again
+            target.abortCopyFromUrl(targetProperties.getCopyId());
+            return true;
+        }
+
+        return !(targetProperties.getCopyStatus() == CopyStatusType.SUCCESS //
+                && targetProperties.getCopyCompletionTime() != null //
+                && sourceProperties.getLastModified() != null //
+                && !targetProperties.getCopyCompletionTime().isBefore(sourceProperties.getLastModified()) //
+                && sourceProperties.getContentLength() != null //
+                && sourceProperties.getContentLength().equals(targetProperties.getContentLength()));
+    }
+
+    /**
+     * @return whether the last copy to the target (attempted or completed) was
+     *         from the given source blob.
+     */
+    private static boolean isCopyOf(final BlobClient source, final BlobItemProperties targetProperties) {
+        final String copySource = targetProperties.getCopySource();
+        return copySource != null && withoutQuery(copySource).equals(withoutQuery(source.getBlobUrl()));
+    }
+
+    /**
+     * Strips the query of a URL, i.e. the SAS of a source URL.
+     */
+    private static String withoutQuery(final String url) {
+        final int queryStart = url.indexOf('?');
+        return queryStart < 0 ? url : url.substring(0, queryStart);
+    }
+
+    /**
+     * @return a function that creates a read SAS for a source blob, or null if
+     *         the credentials of the connection cannot sign one.
+     */
+    @SuppressWarnings("resource")
+    private Function<BlobClient, String> createSourceSigner() {
+        final CredentialType credentialType = m_fs.getCredentialType();
+        final BlobSasPermission permission = new BlobSasPermission().setReadPermission(true);
+
+        if (credentialType == AzureStorageSharedKeyCredential.TYPE) {
+            return blob -> blob.generateSas(
+                    new BlobServiceSasSignatureValues(OffsetDateTime.now().plus(SOURCE_SAS_VALIDITY), permission));
+        } else if (credentialType == JWTCredential.TYPE || credentialType == AccessTokenCredential.TYPE) {
+            final UserDelegationKey key;
+            try {
+                key = m_fs.getUserDelegationKey(OffsetDateTime.now().plus(SOURCE_SAS_VALIDITY));
+            } catch (IOException ex) { // NOSONAR identity may not get delegation keys, use async copies
+                return null;
+            }
+            return blob -> blob.generateUserDelegationSas(
+                    new BlobServiceSasSignatureValues(OffsetDateTime.now().plus(SOURCE_SAS_VALIDITY), permission),
+                    key);
+        } else {
+            // SAS URL credentials cannot sign another SAS
+            return null;
+        }
+    }
+
+    /**
+     * The blobs below the target directory, listed with a single flat listing
+     * alongside the listing of the source. Both listings are sorted by name, and
+     * the names below the two directories differ only in their common prefix,
+     * hence the target blob of a source blob is found by advancing the target
+     * listing, without a request per blob.
+     */
+    private static final class TargetBlobs {
+
+        private final String m_prefix;
+
+        private final Iterator<BlobItem> m_blobs;
+
+        private BlobItem m_current;
+
+        private TargetBlobs(final AzureBlobStoragePath target) {
+            m_prefix = blobPrefix(target);
+            m_blobs = AzureBlobStoragePathIteratorFactory
+                    .listBlobsFlat(target, new BlobListDetails().setRetrieveCopy(true)).iterator();
+            m_current = m_blobs.hasNext() ? m_blobs.next() : null;
+        }
+
+        /**
+         * @param relativeName
+         *            The name of a blob relative to the target directory. The names
+         *            must be passed in the order of the listing.
+         * @return the properties of the target blob, or null if it did not exist
+         *         when it was listed.
+         */
+        private BlobItemProperties getProperties(final String relativeName) {
+            final String name = m_prefix + relativeName;
+            while (m_current != null && m_current.getName().compareTo(name) < 0) {
+                m_current = m_blobs.hasNext() ? m_blobs.next() : null;
+            }
+            return m_current != null && m_current.getName().equals(name) ? m_current.getProperties() : null;
+        }
+    }
+}
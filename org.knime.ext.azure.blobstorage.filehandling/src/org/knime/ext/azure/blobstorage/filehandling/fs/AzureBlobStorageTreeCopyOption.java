@@ -0,0 +1,116 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure.blobstorage.filehandling.fs;
+
+import java.nio.file.CopyOption;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link CopyOption} that copies a directory including all of its contents
+ * with the {@link AzureBlobStorageFileSystemProvider}, e.g. with
+ * <code>Files.copy(source, target, AzureBlobStorageTreeCopyOption.withProgress(progress))</code>,
+ * instead of only creating the target directory. Directories are always moved
+ * as a whole, the option only adds the progress to
+ * <code>Files.move(source, target, ...)</code>. See
+ * {@link AzureBlobStorageFileSystemProvider#copyTree} and
+ * {@link AzureBlobStorageFileSystemProvider#moveTree}.
+ *
+ * @author KNIME GmbH
+ */
+public final class AzureBlobStorageTreeCopyOption implements CopyOption {
+
+    /** Copies directories as a whole, without reporting progress. */
+    public static final AzureBlobStorageTreeCopyOption RECURSIVE = new AzureBlobStorageTreeCopyOption(null);
+
+    private final LongConsumer m_progress;
+
+    private AzureBlobStorageTreeCopyOption(final LongConsumer progress) {
+        m_progress = progress;
+    }
+
+    /**
+     * Creates the option for the given progress.
+     *
+     * @param progress
+     *            Receives the number of blobs copied so far, after each blob. It
+     *            is called from the threads running the copies.
+     * @return the option.
+     */
+    public static AzureBlobStorageTreeCopyOption withProgress(final LongConsumer progress) {
+        return new AzureBlobStorageTreeCopyOption(progress);
+    }
+
+    /**
+     * @return the progress, may be null.
+     */
+    public LongConsumer getProgress() {
+        return m_progress;
+    }
+
+    /**
+     * @param options
+     *            The options a path was copied or moved with.
+     * @return the (last) {@link AzureBlobStorageTreeCopyOption} among the
+     *         options, or null if there is none.
+     */
+    static AzureBlobStorageTreeCopyOption get(final CopyOption... options) {
+        AzureBlobStorageTreeCopyOption treeCopyOption = null;
+        for (final CopyOption option : options) {
+            if (option instanceof AzureBlobStorageTreeCopyOption treeOption) {
+                treeCopyOption = treeOption;
+            }
+        }
+        return treeCopyOption;
+    }
+
+    @Override
+    public String toString() {
+        return "RECURSIVE";
+    }
+}
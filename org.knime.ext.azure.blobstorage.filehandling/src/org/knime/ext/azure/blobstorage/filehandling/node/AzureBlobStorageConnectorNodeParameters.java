@@ -72,6 +72,7 @@
 import org.knime.node.parameters.updates.StateProvider;
 import org.knime.node.parameters.updates.ValueReference;
 import org.knime.node.parameters.widget.number.NumberInputWidget;
+import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MaxValidation;
 import org.knime.node.parameters.widget.number.NumberInputWidgetValidation.MinValidation.IsPositiveIntegerValidation;
 
 /**
@@ -94,6 +95,12 @@ interface FileSystemSettingsSection {
     interface ConnectionSettingsSection {
     }
 
+    @Section(title = "Transfer Settings")
+    @After(ConnectionSettingsSection.class)
+    @Advanced
+    interface TransferSettingsSection {
+    }
+
     @Widget(title = "Working directory", //
             description = """
                     Specifies the <i>working directory</i> using the path syntax explained above. \
@@ -126,9 +133,83 @@ interface ConnectionSettingsSection {
     @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_TIMEOUT)
     int m_timeout = AzureBlobStorageFSConnectionConfig.DEFAULT_TIMEOUT;
 
+    @Widget(title = "Maximum connections", //
+            description = """
+                    The maximum number of HTTP connections to the storage account, which is also the maximum \
+                    number of requests that are sent concurrently, e.g. by parallel uploads and downloads.""")
+    @Layout(ConnectionSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_MAX_CONNECTIONS)
+    int m_maxConnections = AzureBlobStorageFSConnectionConfig.DEFAULT_MAX_CONNECTIONS;
+
+    @Widget(title = "Idle connection timeout (seconds)", //
+            description = "The time after which HTTP connections that are not used anymore are closed.")
+    @Layout(ConnectionSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_CONNECTION_IDLE_TIMEOUT)
+    int m_connectionIdleTimeout = AzureBlobStorageFSConnectionConfig.DEFAULT_CONNECTION_IDLE_TIMEOUT;
+
+    @Widget(title = "Upload block size (MB)", //
+            description = """
+                    Files that are larger than the single request upload threshold are split into blocks of this \
+                    size, which are then uploaded in parallel.""")
+    @Layout(TransferSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class,
+            maxValidation = MaxUploadBlockSizeValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_UPLOAD_BLOCK_SIZE)
+    int m_uploadBlockSize = AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_BLOCK_SIZE_MB;
+
+    @Widget(title = "Maximum parallel block uploads", //
+            description = "The maximum number of blocks of a single file that are uploaded in parallel.")
+    @Layout(TransferSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_UPLOAD_MAX_CONCURRENCY)
+    int m_uploadMaxConcurrency = AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_MAX_CONCURRENCY;
+
+    @Widget(title = "Single request upload threshold (MB)", //
+            description = """
+                    Files up to this size are uploaded with a single request. Larger files are split into \
+                    blocks.""")
+    @Layout(TransferSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class,
+            maxValidation = MaxUploadSingleShotThresholdValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_UPLOAD_SINGLE_SHOT_THRESHOLD)
+    int m_uploadSingleShotThreshold = AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_SINGLE_SHOT_THRESHOLD_MB;
+
+    @Widget(title = "Cache downloaded files locally", //
+            description = """
+                    If enabled, downloaded files are cached on the local disk. Reading a cached file again only \
+                    sends a small request to check whether the file was modified and downloads it only if so.""")
+    @Layout(TransferSettingsSection.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_READ_CACHE_ENABLED)
+    boolean m_readCacheEnabled;
+
+    @Widget(title = "Local cache size (MB)", //
+            description = """
+                    The maximum total size of the files in the local cache. The least recently read files are \
+                    removed from the cache when it exceeds this size.""")
+    @Layout(TransferSettingsSection.class)
+    @NumberInputWidget(minValidation = IsPositiveIntegerValidation.class)
+    @Persist(configKey = AzureBlobStorageConnectorSettings.KEY_READ_CACHE_SIZE)
+    int m_readCacheSize = AzureBlobStorageFSConnectionConfig.DEFAULT_READ_CACHE_SIZE_MB;
+
     static final class TimeoutRef implements ParameterReference<Integer> {
     }
 
+    static final class MaxUploadBlockSizeValidation extends MaxValidation {
+        @Override
+        protected double getMax() {
+            return AzureBlobStorageFSConnectionConfig.MAX_UPLOAD_BLOCK_SIZE_MB;
+        }
+    }
+
+    static final class MaxUploadSingleShotThresholdValidation extends MaxValidation {
+        @Override
+        protected double getMax() {
+            return AzureBlobStorageFSConnectionConfig.MAX_UPLOAD_SINGLE_SHOT_THRESHOLD_MB;
+        }
+    }
+
     static final class NormalizePathsRef implements ParameterReference<Boolean> {
     }
 
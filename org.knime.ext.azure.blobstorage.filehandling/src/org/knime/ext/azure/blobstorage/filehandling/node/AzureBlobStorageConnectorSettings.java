@@ -70,10 +70,26 @@ class AzureBlobStorageConnectorSettings {
     static final String KEY_WORKING_DIRECTORY = "workingDirectory";
     static final String KEY_NORMALIZE_PATHS = "normalizePaths";
     static final String KEY_TIMEOUT = "timeout";
+    static final String KEY_UPLOAD_BLOCK_SIZE = "uploadBlockSize";
+    static final String KEY_UPLOAD_MAX_CONCURRENCY = "uploadMaxConcurrency";
+    static final String KEY_UPLOAD_SINGLE_SHOT_THRESHOLD = "uploadSingleShotThreshold";
+    static final String KEY_MAX_CONNECTIONS = "maxConnections";
+    static final String KEY_CONNECTION_IDLE_TIMEOUT = "connectionIdleTimeout";
+    static final String KEY_READ_CACHE_ENABLED = "readCacheEnabled";
+    static final String KEY_READ_CACHE_SIZE = "readCacheSize";
+
+    private static final long MB = 1024 * 1024L;
 
     private final SettingsModelString m_workingDirectory;
     private final SettingsModelBoolean m_normalizePaths;
     private final SettingsModelIntegerBounded m_timeout;
+    private final SettingsModelIntegerBounded m_uploadBlockSize;
+    private final SettingsModelIntegerBounded m_uploadMaxConcurrency;
+    private final SettingsModelIntegerBounded m_uploadSingleShotThreshold;
+    private final SettingsModelIntegerBounded m_maxConnections;
+    private final SettingsModelIntegerBounded m_connectionIdleTimeout;
+    private final SettingsModelBoolean m_readCacheEnabled;
+    private final SettingsModelIntegerBounded m_readCacheSize;
 
     /**
      * Creates new instance.
@@ -83,6 +99,21 @@ public AzureBlobStorageConnectorSettings() {
         m_normalizePaths = new SettingsModelBoolean(KEY_NORMALIZE_PATHS, true);
         m_timeout = new SettingsModelIntegerBounded(KEY_TIMEOUT, AzureBlobStorageFSConnectionConfig.DEFAULT_TIMEOUT, 0,
                 Integer.MAX_VALUE);
+        m_uploadBlockSize = new SettingsModelIntegerBounded(KEY_UPLOAD_BLOCK_SIZE,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_BLOCK_SIZE_MB, 1,
+                AzureBlobStorageFSConnectionConfig.MAX_UPLOAD_BLOCK_SIZE_MB);
+        m_uploadMaxConcurrency = new SettingsModelIntegerBounded(KEY_UPLOAD_MAX_CONCURRENCY,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_MAX_CONCURRENCY, 1, Integer.MAX_VALUE);
+        m_uploadSingleShotThreshold = new SettingsModelIntegerBounded(KEY_UPLOAD_SINGLE_SHOT_THRESHOLD,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_UPLOAD_SINGLE_SHOT_THRESHOLD_MB, 1,
+                AzureBlobStorageFSConnectionConfig.MAX_UPLOAD_SINGLE_SHOT_THRESHOLD_MB);
+        m_maxConnections = new SettingsModelIntegerBounded(KEY_MAX_CONNECTIONS,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_MAX_CONNECTIONS, 1, Integer.MAX_VALUE);
+        m_connectionIdleTimeout = new SettingsModelIntegerBounded(KEY_CONNECTION_IDLE_TIMEOUT,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_CONNECTION_IDLE_TIMEOUT, 1, Integer.MAX_VALUE);
+        m_readCacheEnabled = new SettingsModelBoolean(KEY_READ_CACHE_ENABLED, false);
+        m_readCacheSize = new SettingsModelIntegerBounded(KEY_READ_CACHE_SIZE,
+                AzureBlobStorageFSConnectionConfig.DEFAULT_READ_CACHE_SIZE_MB, 1, Integer.MAX_VALUE);
     }
 
     /**
@@ -95,6 +126,13 @@ public void saveSettingsTo(final NodeSettingsWO settings) {
         m_workingDirectory.saveSettingsTo(settings);
         m_normalizePaths.saveSettingsTo(settings);
         m_timeout.saveSettingsTo(settings);
+        m_uploadBlockSize.saveSettingsTo(settings);
+        m_uploadMaxConcurrency.saveSettingsTo(settings);
+        m_uploadSingleShotThreshold.saveSettingsTo(settings);
+        m_maxConnections.saveSettingsTo(settings);
+        m_connectionIdleTimeout.saveSettingsTo(settings);
+        m_readCacheEnabled.saveSettingsTo(settings);
+        m_readCacheSize.saveSettingsTo(settings);
     }
 
     /**
@@ -108,6 +146,20 @@ public void validateSettings(final NodeSettingsRO settings) throws InvalidSettin
         m_workingDirectory.validateSettings(settings);
         m_normalizePaths.validateSettings(settings);
         m_timeout.validateSettings(settings);
+        // the transfer settings were added later and may be absent in old workflows
+        if (settings.containsKey(KEY_UPLOAD_BLOCK_SIZE)) {
+            m_uploadBlockSize.validateSettings(settings);
+            m_uploadMaxConcurrency.validateSettings(settings);
+            m_uploadSingleShotThreshold.validateSettings(settings);
+        }
+        if (settings.containsKey(KEY_MAX_CONNECTIONS)) {
+            m_maxConnections.validateSettings(settings);
+            m_connectionIdleTimeout.validateSettings(settings);
+        }
+        if (settings.containsKey(KEY_READ_CACHE_ENABLED)) {
+            m_readCacheEnabled.validateSettings(settings);
+            m_readCacheSize.validateSettings(settings);
+        }
 
         AzureBlobStorageConnectorSettings temp = new AzureBlobStorageConnectorSettings();
         temp.loadSettingsFrom(settings);
@@ -137,6 +189,19 @@ public void loadSettingsFrom(final NodeSettingsRO settings) throws InvalidSettin
         m_workingDirectory.loadSettingsFrom(settings);
         m_normalizePaths.loadSettingsFrom(settings);
         m_timeout.loadSettingsFrom(settings);
+        if (settings.containsKey(KEY_UPLOAD_BLOCK_SIZE)) {
+            m_uploadBlockSize.loadSettingsFrom(settings);
+            m_uploadMaxConcurrency.loadSettingsFrom(settings);
+            m_uploadSingleShotThreshold.loadSettingsFrom(settings);
+        }
+        if (settings.containsKey(KEY_MAX_CONNECTIONS)) {
+            m_maxConnections.loadSettingsFrom(settings);
+            m_connectionIdleTimeout.loadSettingsFrom(settings);
+        }
+        if (settings.containsKey(KEY_READ_CACHE_ENABLED)) {
+            m_readCacheEnabled.loadSettingsFrom(settings);
+            m_readCacheSize.loadSettingsFrom(settings);
+        }
     }
 
     /**
@@ -181,6 +246,58 @@ public Duration getTimeout() {
         return Duration.ofSeconds(m_timeout.getIntValue());
     }
 
+    /**
+     * @return the size in bytes of the blocks that are staged when uploading a
+     *         file
+     */
+    public long getUploadBlockSize() {
+        return m_uploadBlockSize.getIntValue() * MB;
+    }
+
+    /**
+     * @return the maximum number of blocks that are uploaded in parallel
+     */
+    public int getUploadMaxConcurrency() {
+        return m_uploadMaxConcurrency.getIntValue();
+    }
+
+    /**
+     * @return the size in bytes up to which a file is uploaded with a single
+     *         request
+     */
+    public long getUploadSingleShotThreshold() {
+        return m_uploadSingleShotThreshold.getIntValue() * MB;
+    }
+
+    /**
+     * @return the maximum number of HTTP connections to the storage account
+     */
+    public int getMaxConnections() {
+        return m_maxConnections.getIntValue();
+    }
+
+    /**
+     * @return the time after which idle HTTP connections are closed
+     */
+    public Duration getConnectionIdleTimeout() {
+        return Duration.ofSeconds(m_connectionIdleTimeout.getIntValue());
+    }
+
+    /**
+     * @return whether read blobs are cached on the local disk
+     */
+    public boolean isReadCacheEnabled() {
+        return m_readCacheEnabled.getBooleanValue();
+    }
+
+    /**
+     * @return the maximum total size in bytes of the blobs in the local read
+     *         cache
+     */
+    public long getReadCacheSize() {
+        return m_readCacheSize.getIntValue() * MB;
+    }
+
     /**
      * @param credential
      *            The {@link Credential} to use when connecting.
@@ -191,6 +308,13 @@ public AzureBlobStorageFSConnectionConfig toFSConnectionConfig(final Credential
         config.setCredential(credential);
         config.setNormalizePaths(shouldNormalizePaths());
         config.setTimeout(getTimeout());
+        config.setUploadBlockSize(getUploadBlockSize());
+        config.setUploadMaxConcurrency(getUploadMaxConcurrency());
+        config.setUploadSingleShotThreshold(getUploadSingleShotThreshold());
+        config.setMaxConnections(getMaxConnections());
+        config.setConnectionIdleTimeout(getConnectionIdleTimeout());
+        config.setReadCacheEnabled(isReadCacheEnabled());
+        config.setReadCacheSize(getReadCacheSize());
         return config;
     }
 
@@ -56,6 +56,7 @@
 import java.util.Map;
 import java.util.Optional;
 
+import org.knime.ext.azure.AzureRequestGovernor;
 import org.knime.ext.azure.AzureUtils;
 import org.knime.ext.azure.TokenCredentialFactory;
 import org.knime.filehandling.core.connections.base.BaseFileSystem;
@@ -120,6 +121,7 @@ private static DataLakeFileSystemClient createClient(final OneLakeFSConnectionCo
         final var clientBuilder = new DataLakeFileSystemClientBuilder()//
                 .endpoint(ONE_LAKE_ENDPOINT)//
                 .clientOptions(createHttpClientOptions(config))//
+                .addPolicy(AzureRequestGovernor.getPolicy())//
                 .credential(TokenCredentialFactory.create(config.getAccessTokenAccessor()))//
                 .fileSystemName(config.getWorkspaceName());
 
@@ -0,0 +1,367 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.util.Context;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tests {@link AzureRequestGovernor}, by acquiring and releasing permits with
+ * fake responses, and by sending requests through a pipeline with the governor
+ * policy and a fake HTTP client.
+ *
+ * @author KNIME GmbH
+ */
+final class AzureRequestGovernorTest {
+
+    private static final int INITIAL_LIMIT = 64;
+
+    private static final AtomicInteger ACCOUNT_COUNTER = new AtomicInteger();
+
+    /** Governors are shared per account, hence every test uses a new one. */
+    private static String newHost() {
+        return "governortest" + ACCOUNT_COUNTER.incrementAndGet() + ".blob.core.windows.net";
+    }
+
+    /**
+     * Acquires permits until the governor refuses.
+     *
+     * @return the number of acquired permits
+     */
+    private static int acquireAll(final AzureRequestGovernor governor) {
+        int acquired = 0;
+        while (governor.tryAcquire() == 0) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private static void releaseWithoutResponse(final AzureRequestGovernor governor, final int count) {
+        for (int i = 0; i < count; i++) {
+            governor.release(null);
+        }
+    }
+
+    private static HttpResponse response(final int statusCode) {
+        return new FakeResponse(statusCode, new HttpHeaders());
+    }
+
+    @Test
+    void testAccountIsSharedByEndpoints() {
+        assertSame(AzureRequestGovernor.forHost("shared.blob.core.windows.net"),
+                AzureRequestGovernor.forHost("SHARED.dfs.core.windows.net"));
+    }
+
+    @Test
+    void testAdditiveIncreaseAtLimit() {
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(newHost());
+        int inFlight = acquireAll(governor);
+        assertEquals(INITIAL_LIMIT, inFlight);
+
+        // the limit grows by 1/limit per successful request while it is reached
+        for (int i = 0; i < INITIAL_LIMIT; i++) {
+            governor.release(response(200));
+            inFlight += acquireAll(governor) - 1;
+        }
+        assertEquals(INITIAL_LIMIT, inFlight);
+
+        governor.release(response(200));
+        inFlight += acquireAll(governor) - 1;
+        assertEquals(INITIAL_LIMIT + 1, inFlight);
+    }
+
+    @Test
+    void testNoIncreaseBelowLimit() {
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(newHost());
+        for (int i = 0; i < 10 * INITIAL_LIMIT; i++) {
+            assertEquals(0, governor.tryAcquire());
+            governor.release(response(200));
+        }
+        assertEquals(INITIAL_LIMIT, acquireAll(governor));
+    }
+
+    @Test
+    void testMultiplicativeDecrease() {
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(newHost());
+        assertEquals(INITIAL_LIMIT, acquireAll(governor));
+
+        governor.release(response(429));
+        releaseWithoutResponse(governor, INITIAL_LIMIT - 1);
+        assertEquals(INITIAL_LIMIT / 2, acquireAll(governor));
+    }
+
+    @Test
+    void testDecreaseHalvesActualConcurrency() {
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(newHost());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, governor.tryAcquire());
+        }
+
+        governor.release(response(503));
+        releaseWithoutResponse(governor, 9);
+        assertEquals(5, acquireAll(governor));
+    }
+
+    @Test
+    void testDecreaseCooldown() {
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(newHost());
+        assertEquals(INITIAL_LIMIT, acquireAll(governor));
+
+        // a burst of throttled responses only halves the limit once
+        governor.release(response(429));
+        governor.release(response(429));
+        governor.release(response(503));
+        releaseWithoutResponse(governor, INITIAL_LIMIT - 3);
+        assertEquals(INITIAL_LIMIT / 2, acquireAll(governor));
+    }
+
+    @Test
+    void testRetryAfterPausesRequests() {
+        final AtomicLong clock = new AtomicLong();
+        final AzureRequestGovernor governor = new AzureRequestGovernor(newHost(), clock::get);
+        assertEquals(0, governor.tryAcquire());
+
+        governor.release(new FakeResponse(429,
+                new HttpHeaders().set(HttpHeaderName.fromString("x-ms-retry-after-ms"), "200")));
+        assertEquals(Duration.ofMillis(200).toNanos(), governor.tryAcquire());
+
+        clock.addAndGet(Duration.ofMillis(150).toNanos());
+        assertEquals(Duration.ofMillis(50).toNanos(), governor.tryAcquire());
+
+        clock.addAndGet(Duration.ofMillis(50).toNanos());
+        assertEquals(0, governor.tryAcquire());
+    }
+
+    @Test
+    void testRetryAfterSeconds() {
+        final AtomicLong clock = new AtomicLong();
+        final AzureRequestGovernor governor = new AzureRequestGovernor(newHost(), clock::get);
+        assertEquals(0, governor.tryAcquire());
+
+        governor.release(new FakeResponse(503, new HttpHeaders().set(HttpHeaderName.RETRY_AFTER, "2")));
+        assertEquals(Duration.ofSeconds(2).toNanos(), governor.tryAcquire());
+    }
+
+    @Test
+    void testDecreaseAfterCooldown() {
+        final AtomicLong clock = new AtomicLong();
+        final AzureRequestGovernor governor = new AzureRequestGovernor(newHost(), clock::get);
+        assertEquals(INITIAL_LIMIT, acquireAll(governor));
+
+        governor.release(response(429));
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        governor.release(response(429));
+        releaseWithoutResponse(governor, INITIAL_LIMIT - 2);
+        assertEquals(INITIAL_LIMIT / 4, acquireAll(governor));
+    }
+
+    @Test
+    void testSyncRequestReleasesOnce() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.just(new FakeResponse(200, new HttpHeaders())));
+        for (int i = 0; i < 3; i++) {
+            try (HttpResponse response = pipeline.sendSync(createRequest(host), Context.NONE)) {
+                assertEquals(200, response.getStatusCode());
+            }
+        }
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    @Test
+    void testSyncRequestReleasesOnError() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.error(new IllegalStateException("failed")));
+        assertThrows(IllegalStateException.class, () -> pipeline.sendSync(createRequest(host), Context.NONE));
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    @Test
+    void testAsyncRequestReleasesOnceOnSuccess() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.just(new FakeResponse(200, new HttpHeaders())));
+        for (int i = 0; i < 3; i++) {
+            try (HttpResponse response = pipeline.send(createRequest(host)).block()) {
+                assertEquals(200, response.getStatusCode());
+            }
+        }
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    @Test
+    void testPermitIsHeldUntilBodyIsRead() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.just(new FakeResponse(200, new HttpHeaders())));
+        final AzureRequestGovernor governor = AzureRequestGovernor.forHost(host);
+
+        final HttpResponse response = pipeline.sendSync(createRequest(host), Context.NONE);
+        assertEquals(INITIAL_LIMIT - 1, acquireAll(governor));
+
+        response.getBodyAsByteArray().block();
+        assertEquals(1, acquireAll(governor));
+        // closing the response after reading the body must not release the permit again
+        response.close();
+        assertEquals(0, acquireAll(governor));
+    }
+
+    @Test
+    void testPermitIsReleasedWithoutBody() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.just(
+                new FakeResponse(200, new HttpHeaders().set(HttpHeaderName.CONTENT_LENGTH, "0"))));
+        pipeline.sendSync(createRequest(host), Context.NONE);
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    @Test
+    void testAsyncRequestReleasesOnceOnError() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.error(new IllegalStateException("failed")));
+        for (int i = 0; i < 3; i++) {
+            final Mono<HttpResponse> response = pipeline.send(createRequest(host));
+            assertThrows(IllegalStateException.class, response::block);
+        }
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    @Test
+    void testAsyncRequestReleasesOnceOnCancel() {
+        final String host = newHost();
+        final HttpPipeline pipeline = createPipeline(request -> Mono.never());
+        for (int i = 0; i < 3; i++) {
+            final Disposable subscription = pipeline.send(createRequest(host)).subscribe();
+            subscription.dispose();
+            // disposing again must not release the permit a second time
+            subscription.dispose();
+        }
+        assertEquals(INITIAL_LIMIT, acquireAll(AzureRequestGovernor.forHost(host)));
+    }
+
+    private static HttpPipeline createPipeline(final HttpClient client) {
+        return new HttpPipelineBuilder() //
+                .policies(AzureRequestGovernor.getPolicy()) //
+                .httpClient(client) //
+                .build();
+    }
+
+    private static HttpRequest createRequest(final String host) {
+        return new HttpRequest(HttpMethod.GET, "https://" + host + "/container");
+    }
+
+    private static final class FakeResponse extends HttpResponse {
+
+        private final int m_statusCode;
+
+        private final HttpHeaders m_headers;
+
+        FakeResponse(final int statusCode, final HttpHeaders headers) {
+            super(null);
+            m_statusCode = statusCode;
+            m_headers = headers;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return m_statusCode;
+        }
+
+        @Deprecated
+        @Override
+        public String getHeaderValue(final String name) {
+            return m_headers.getValue(HttpHeaderName.fromString(name));
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return m_headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return Flux.empty();
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(new byte[0]);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return Mono.just("");
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(final Charset charset) {
+            return Mono.just("");
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   2026-10-17 (KNIME GmbH): created
+ */
+package org.knime.ext.azure;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.knime.core.node.NodeLogger;
+
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.azure.core.util.CoreUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Process-wide governor of the requests sent to a storage account. All Blob
+ * Storage, ADLS and OneLake clients that add the {@link #getPolicy() policy} to
+ * their pipeline share one governor per storage account, which limits the
+ * number of concurrent requests with additive increase/multiplicative decrease
+ * (AIMD): The limit grows by one per round of successful requests while it is
+ * fully used, and is halved when the service throttles (429 Too Many Requests or
+ * 503 Server Busy). If a throttled response carries a Retry-After header, all
+ * requests to the account are paused for that time. This way many clients back
+ * off together instead of retrying on their own, which would make the
+ * throttling worse.
+ *
+ * @author KNIME GmbH
+ */
+public final class AzureRequestGovernor {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(AzureRequestGovernor.class);
+
+    private static final int HTTP_BAD_REQUEST = 400;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final int HTTP_SERVER_BUSY = 503;
+
+    private static final int INITIAL_LIMIT = 64;
+
+    private static final int MAX_LIMIT = 1024;
+
+    /**
+     * Throttled responses within this time after a decrease are considered to be
+     * caused by the same overload, so that one burst only halves the limit once.
+     */
+    private static final long DECREASE_COOLDOWN_NANOS = Duration.ofSeconds(1).toNanos();
+
+    /**
+     * The time an asynchronous request waits before it tries again to acquire a
+     * permit.
+     */
+    private static final Duration ASYNC_POLL_INTERVAL = Duration.ofMillis(20);
+
+    /** Storage service endpoints of the same account, e.g. blob and dfs. */
+    private static final Pattern STORAGE_HOST_PATTERN = Pattern.compile("([^.]+)\\.(?:blob|dfs)\\.(.+)");
+
+    private static final Map<String, AzureRequestGovernor> GOVERNORS = new ConcurrentHashMap<>();
+
+    private static final HttpPipelinePolicy POLICY = new GovernorPolicy();
+
+    private final String m_account;
+
+    private final LongSupplier m_nanoClock;
+
+    /** Guarded by this. */
+    private double m_limit = INITIAL_LIMIT;
+
+    /** Guarded by this. */
+    private int m_inFlight;
+
+    /** Guarded by this. */
+    private long m_pausedUntilNanos;
+
+    /** Guarded by this. */
+    private long m_lastDecreaseNanos;
+
+    private AzureRequestGovernor(final String account) {
+        this(account, System::nanoTime);
+    }
+
+    /**
+     * @param account
+     *            The storage account, for logging.
+     * @param nanoClock
+     *            The source of the current time in nanoseconds, like
+     *            {@link System#nanoTime()}.
+     */
+    AzureRequestGovernor(final String account, final LongSupplier nanoClock) {
+        m_account = account;
+        m_nanoClock = nanoClock;
+        m_pausedUntilNanos = nanoClock.getAsLong();
+        m_lastDecreaseNanos = m_pausedUntilNanos - DECREASE_COOLDOWN_NANOS;
+    }
+
+    /**
+     * Returns the policy to add to the HTTP pipeline of Azure storage clients.
+     * The policy is run once per attempt (i.e. after the retry policy) and uses
+     * the governor of the storage account the request is sent to.
+     *
+     * @return the (shared) policy
+     */
+    public static HttpPipelinePolicy getPolicy() {
+        return POLICY;
+    }
+
+    /**
+     * @param host
+     *            The host name of a storage endpoint.
+     * @return the governor of the storage account of the given host
+     */
+    static AzureRequestGovernor forHost(final String host) {
+        final String normalizedHost = host.toLowerCase(Locale.ENGLISH);
+        final Matcher matcher = STORAGE_HOST_PATTERN.matcher(normalizedHost);
+        final String account = matcher.matches() ? (matcher.group(1) + "." + matcher.group(2)) : normalizedHost;
+        return GOVERNORS.computeIfAbsent(account, AzureRequestGovernor::new);
+    }
+
+    /**
+     * Waits until a request may be sent.
+     *
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting.
+     */
+    synchronized void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            wait(Math.max(1, waitNanos / 1_000_000));
+        }
+    }
+
+    /**
+     * Acquires a permit to send a request, if possible.
+     *
+     * @return zero if the permit was acquired, otherwise the time in nanoseconds
+     *         after which to try again (at the latest).
+     */
+    synchronized long tryAcquire() {
+        final long pausedNanos = m_pausedUntilNanos - m_nanoClock.getAsLong();
+        if (pausedNanos > 0) {
+            return pausedNanos;
+        }
+        if (m_inFlight >= (int) m_limit) {
+            return ASYNC_POLL_INTERVAL.toNanos();
+        }
+        m_inFlight++;
+        return 0;
+    }
+
+    /**
+     * Releases the permit of a request and adjusts the limit based on its
+     * response.
+     *
+     * @param response
+     *            The response, or null if the request failed without a response.
+     */
+    synchronized void release(final HttpResponse response) {
+        final int inFlight = m_inFlight;
+        m_inFlight--;
+
+        if (response != null && isThrottled(response.getStatusCode())) {
+            onThrottled(response, inFlight);
+        } else if (response != null && inFlight >= (int) m_limit) {
+            // additive increase, by one per round of requests, but only while the limit is actually reached
+            m_limit = Math.min(MAX_LIMIT, m_limit + 1 / m_limit);
+        }
+        notifyAll();
+    }
+
+    private void onThrottled(final HttpResponse response, final int inFlight) {
+        final long now = m_nanoClock.getAsLong();
+        if (now - m_lastDecreaseNanos >= DECREASE_COOLDOWN_NANOS) {
+            m_lastDecreaseNanos = now;
+            // halve the actual concurrency, the limit may not have been reached
+            m_limit = Math.max(1, Math.min(m_limit, inFlight) / 2);
+            LOGGER.debugWithFormat("Storage account %s is throttling requests (HTTP %d), limiting to %d "
+                    + "concurrent requests.", m_account, response.getStatusCode(), (int) m_limit);
+        }
+
+        final Duration retryAfter = CoreUtils.getRetryAfterFromHeaders(response.getHeaders(), OffsetDateTime::now);
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            m_pausedUntilNanos = Math.max(m_pausedUntilNanos, now + retryAfter.toNanos());
+        }
+    }
+
+    private static boolean isThrottled(final int statusCode) {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode == HTTP_SERVER_BUSY;
+    }
+
+    private static final class GovernorPolicy implements HttpPipelinePolicy {
+
+        @Override
+        public HttpPipelinePosition getPipelinePosition() {
+            return HttpPipelinePosition.PER_RETRY;
+        }
+
+        @Override
+        public HttpResponse processSync(final HttpPipelineCallContext context, final HttpPipelineNextSyncPolicy next) {
+            final AzureRequestGovernor governor = forHost(context.getHttpRequest().getUrl().getHost());
+            try {
+                governor.acquire();
+            } catch (InterruptedException ex) { // NOSONAR interrupt flag is restored
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(
+                        new InterruptedIOException("Interrupted while waiting to send a request"));
+            }
+
+            final Consumer<HttpResponse> release = releaseOnce(governor);
+            final HttpResponse response;
+            try {
+                response = next.processSync();
+            } catch (RuntimeException ex) {
+                release.accept(null);
+                throw ex;
+            }
+            return governed(context.getHttpRequest(), response, release);
+        }
+
+        @Override
+        public Mono<HttpResponse> process(final HttpPipelineCallContext context, final HttpPipelineNextPolicy next) {
+            final AzureRequestGovernor governor = forHost(context.getHttpRequest().getUrl().getHost());
+            // the request may be cancelled at any time, the permit must be released exactly once
+            final AtomicBoolean acquired = new AtomicBoolean();
+            final Consumer<HttpResponse> release = releaseOnce(governor);
+            final Consumer<HttpResponse> releaseIfAcquired = response -> {
+                if (acquired.get()) {
+                    release.accept(response);
+                }
+            };
+
+            return acquireAsync(governor, acquired) //
+                    .then(Mono.defer(next::process)) //
+                    .map(response -> governed(context.getHttpRequest(), response, release)) //
+                    .doOnError(ex -> releaseIfAcquired.accept(null)) //
+                    .doOnCancel(() -> releaseIfAcquired.accept(null));
+        }
+
+        private static Consumer<HttpResponse> releaseOnce(final AzureRequestGovernor governor) {
+            final AtomicBoolean released = new AtomicBoolean();
+            return response -> {
+                if (released.compareAndSet(false, true)) {
+                    governor.release(response);
+                }
+            };
+        }
+
+        /**
+         * The request occupies the connection until its body was read, hence the
+         * permit is only released then, or when the response is closed. Responses
+         * without a body and error responses, whose small bodies may not be read
+         * before the request is retried, release it right away.
+         */
+        private static HttpResponse governed(final HttpRequest request, final HttpResponse response,
+                final Consumer<HttpResponse> release) {
+            if (response.getStatusCode() >= HTTP_BAD_REQUEST || request.getHttpMethod() == HttpMethod.HEAD
+                    || "0".equals(response.getHeaderValue(HttpHeaderName.CONTENT_LENGTH))) {
+                release.accept(response);
+                return response;
+            }
+            return new GovernedHttpResponse(response, release);
+        }
+
+        private static Mono<Void> acquireAsync(final AzureRequestGovernor governor, final AtomicBoolean acquired) {
+            return Mono.defer(() -> {
+                final long waitNanos = governor.tryAcquire();
+                if (waitNanos == 0) {
+                    acquired.set(true);
+                    return Mono.empty();
+                }
+                return Mono.delay(Duration.ofNanos(Math.min(waitNanos, ASYNC_POLL_INTERVAL.toNanos()))) //
+                        .then(acquireAsync(governor, acquired));
+            });
+        }
+    }
+
+    /**
+     * Response that releases the permit of its request once its body was
+     * consumed, or it was closed.
+     */
+    private static final class GovernedHttpResponse extends HttpResponse {
+
+        private final HttpResponse m_response;
+
+        private final Consumer<HttpResponse> m_release;
+
+        private GovernedHttpResponse(final HttpResponse response, final Consumer<HttpResponse> release) {
+            super(response.getRequest());
+            m_response = response;
+            m_release = release;
+        }
+
+        private void release() {
+            m_release.accept(m_response);
+        }
+
+        @Override
+        public int getStatusCode() {
+            return m_response.getStatusCode();
+        }
+
+        @Override
+        @Deprecated
+        public String getHeaderValue(final String name) {
+            return m_response.getHeaderValue(name);
+        }
+
+        @Override
+        public String getHeaderValue(final HttpHeaderName headerName) {
+            return m_response.getHeaderValue(headerName);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return m_response.getHeaders();
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return m_response.getBody().doFinally(signal -> release());
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return m_response.getBodyAsByteArray().doFinally(signal -> release());
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return m_response.getBodyAsString().doFinally(signal -> release());
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(final Charset charset) {
+            return m_response.getBodyAsString(charset).doFinally(signal -> release());
+        }
+
+        @Override
+        public void writeBodyTo(final WritableByteChannel channel) throws IOException {
+            try {
+                m_response.writeBodyTo(channel);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public Mono<Void> writeBodyToAsync(final AsynchronousByteChannel channel) {
+            return m_response.writeBodyToAsync(channel).doFinally(signal -> release());
+        }
+
+        @Override
+        public void close() {
+            try {
+                m_response.close();
+            } finally {
+                release();
+            }
+        }
+    }
+}